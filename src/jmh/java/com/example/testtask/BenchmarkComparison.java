@@ -0,0 +1,66 @@
+package com.example.testtask;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result file against the checked-in baseline.
+ * Usage: {@code BenchmarkComparison <baseline.json> <results.json> [maxRegressionPercent]}.
+ * Exits with status 1 when any benchmark regressed by more than the threshold (default 10%).
+ */
+public class BenchmarkComparison {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: BenchmarkComparison <baseline.json> <results.json> [maxRegressionPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+
+        Map<String, JsonNode> baseline = read(new File(args[0]));
+        Map<String, JsonNode> results = read(new File(args[1]));
+
+        boolean regressed = false;
+        System.out.printf("%-90s %14s %14s %9s%n", "Benchmark", "Baseline", "Current", "Change");
+        for (Map.Entry<String, JsonNode> entry : results.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            JsonNode after = entry.getValue();
+            double current = after.path("primaryMetric").path("score").asDouble();
+            String unit = after.path("primaryMetric").path("scoreUnit").asText();
+            if (before == null) {
+                System.out.printf("%-90s %14s %14.3f %9s  %s%n", entry.getKey(), "-", current, "new", unit);
+                continue;
+            }
+            double previous = before.path("primaryMetric").path("score").asDouble();
+            // AverageTime/SampleTime scores are "lower is better", throughput scores are "higher is better"
+            boolean lowerIsBetter = unit.contains("/op");
+            double change = (current - previous) / previous * 100.0;
+            double regression = lowerIsBetter ? change : -change;
+            boolean failed = regression > threshold;
+            regressed |= failed;
+            System.out.printf("%-90s %14.3f %14.3f %+8.1f%%  %s%s%n",
+                    entry.getKey(), previous, current, change, unit, failed ? "  REGRESSION" : "");
+        }
+        System.exit(regressed ? 1 : 0);
+    }
+
+    private static Map<String, JsonNode> read(File file) throws IOException {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText());
+            Iterator<Map.Entry<String, JsonNode>> params = run.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(':').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), run);
+        }
+        return byKey;
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.testtask.config;
+
+import com.example.testtask.dto.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value serializer used by {@link CacheConfig} for the {@code users} region, plain JSON and with
+ * {@link CompressingRedisSerializer} (threshold 0, so every value is compressed).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CacheSerializerBenchmark {
+
+    @Param({"1", "10", "50"})
+    public int contacts;
+
+    private RedisSerializer<Object> serializer;
+    private RedisSerializer<Object> compressingSerializer;
+    private UserResponse user;
+    private byte[] serialized;
+    private byte[] compressed;
+
+    @Setup
+    public void setUp() {
+        serializer = CacheConfig.cacheValueSerializer();
+        compressingSerializer = new CompressingRedisSerializer(serializer, 0, 3, new SimpleMeterRegistry());
+
+        List<String> emails = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        for (int i = 0; i < contacts; i++) {
+            emails.add("alice" + i + "@example.com");
+            phones.add(String.valueOf(79200000000L + i));
+        }
+        user = new UserResponse();
+        user.setId(101L);
+        user.setName("Alice Johnson");
+        user.setDateOfBirth(LocalDate.of(1990, 4, 15));
+        user.setBalance(new BigDecimal("1000.00"));
+        user.setEmails(emails);
+        user.setPhones(phones);
+
+        serialized = serializer.serialize(user);
+        compressed = compressingSerializer.serialize(user);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return serializer.serialize(user);
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    @Benchmark
+    public byte[] serializeCompressed() {
+        return compressingSerializer.serialize(user);
+    }
+
+    @Benchmark
+    public Object deserializeCompressed() {
+        return compressingSerializer.deserialize(compressed);
+    }
+}
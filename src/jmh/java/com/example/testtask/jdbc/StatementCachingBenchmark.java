@@ -0,0 +1,90 @@
+package com.example.testtask.jdbc;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.utility.DockerImageName;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Effect of pgjdbc server-side prepared statements on the login lookup query, executed the way Hibernate does it
+ * (a new PreparedStatement per execution on a pooled connection). {@code prepareThreshold=0} parses and plans the
+ * query on every execution; with a threshold the driver switches to a named server statement and later executions
+ * only send Bind/Execute. Needs Docker, so it is excluded from the default run:
+ * {@code mvn -Pjmh -DskipTests test-compile exec:exec@jmh -Djmh.includes=StatementCachingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StatementCachingBenchmark {
+
+    private static final int USERS = 10_000;
+
+    // Same join as UserRepository.findCredentialsByEmail, selecting the full user row
+    private static final String LOOKUP = "select u1_0.id,u1_0.date_of_birth,u1_0.name,u1_0.password from users u1_0 "
+            + "join email_data e1_0 on u1_0.id=e1_0.user_id where e1_0.email=?";
+
+    @Param({"0", "5", "1"})
+    public int prepareThreshold;
+
+    private PostgreSQLContainer<?> postgres;
+    private Connection connection;
+    private int next;
+
+    @Setup
+    public void setUp() throws SQLException {
+        postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"));
+        postgres.start();
+
+        Properties properties = new Properties();
+        properties.setProperty("user", postgres.getUsername());
+        properties.setProperty("password", postgres.getPassword());
+        properties.setProperty("prepareThreshold", String.valueOf(prepareThreshold));
+        properties.setProperty("preparedStatementCacheQueries", "512");
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), properties);
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE users (id BIGINT PRIMARY KEY, name VARCHAR(500), "
+                    + "date_of_birth DATE, password VARCHAR(500))");
+            statement.execute("CREATE TABLE email_data (id BIGINT PRIMARY KEY, user_id BIGINT, "
+                    + "email VARCHAR(200) UNIQUE)");
+            statement.execute("INSERT INTO users SELECT g, 'User ' || g, DATE '1990-01-01', 'hash' "
+                    + "FROM generate_series(1, " + USERS + ") g");
+            statement.execute("INSERT INTO email_data SELECT g, g, 'user' || g || '@bench.test' "
+                    + "FROM generate_series(1, " + USERS + ") g");
+            statement.execute("ANALYZE");
+        }
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+        connection.close();
+        postgres.stop();
+    }
+
+    @Benchmark
+    public long findByEmail() throws SQLException {
+        next = next % USERS + 1;
+        try (PreparedStatement statement = connection.prepareStatement(LOOKUP)) {
+            statement.setString(1, "user" + next + "@bench.test");
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() ? resultSet.getLong(1) : -1;
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.testtask.service;
+
+import com.example.testtask.dto.TransferRequest;
+import com.example.testtask.entity.Account;
+import com.example.testtask.entity.Money;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Balance math of {@link AccountService#transferMoney} and {@link AccountService#increaseBalance}
+ * without Spring proxies, so retries, transactions and JDBC are excluded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AccountServiceBenchmark {
+
+    private AccountService accountService;
+    private Account accrualAccount;
+    private TransferRequest forward;
+    private TransferRequest backward;
+
+    @Setup
+    public void setUp() {
+        Account first = account(1L, Money.of("1000000.00"));
+        Account second = account(2L, Money.of("1000000.00"));
+        accrualAccount = account(3L, Money.of("1000.00"));
+        accountService = new AccountService(
+                InMemoryRepositories.accountRepository(first, second, accrualAccount),
+                new BalanceMetrics(new SimpleMeterRegistry()),
+                new TransferAuditLog(1.0),
+                new AccrualService("periodic"),
+                event -> { },
+                new OutboxService(InMemoryRepositories.outboxEventRepository(), new ObjectMapper()));
+
+        forward = transfer(2L, new BigDecimal("12.34"));
+        backward = transfer(1L, new BigDecimal("12.34"));
+    }
+
+    @Benchmark
+    public void transferRoundTrip() {
+        accountService.transferMoney(1L, forward);
+        accountService.transferMoney(2L, backward);
+    }
+
+    @Benchmark
+    public Money increaseBalance() {
+        accrualAccount.setBalance(accrualAccount.getInitialBalance());
+        accountService.increaseBalance(accrualAccount.getId());
+        return accrualAccount.getBalance();
+    }
+
+    private static Account account(Long userId, Money balance) {
+        Account account = new Account();
+        account.setId(userId);
+        account.setUserId(userId);
+        account.setBalance(balance);
+        account.setInitialBalance(balance);
+        account.setVersion(0L);
+        return account;
+    }
+
+    private static TransferRequest transfer(Long to, BigDecimal amount) {
+        TransferRequest request = new TransferRequest();
+        request.setTransferTo(to);
+        request.setAmount(amount);
+        return request;
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.testtask.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request authentication costs: JWT signing/parsing and BCrypt matching on login.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AuthBenchmark {
+
+    private JwtService jwtService;
+    private String token;
+    private PasswordEncoder passwordEncoder;
+    private String passwordHash;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "jwtSecret", "mySecretKey1234567890123456789012345678901234567890");
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        token = jwtService.generateToken(101L);
+
+        passwordEncoder = new BCryptPasswordEncoder();
+        passwordHash = passwordEncoder.encode("password1");
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(101L);
+    }
+
+    @Benchmark
+    public Long extractUserId() {
+        return jwtService.extractUserId(token);
+    }
+
+    @Benchmark
+    public boolean bcryptMatches() {
+        return passwordEncoder.matches("password1", passwordHash);
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.Account;
+import com.example.testtask.repository.AccountRepository;
+import com.example.testtask.repository.OutboxEventRepository;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Map-backed repository stand-ins so benchmarks measure service code rather than JDBC.
+ */
+final class InMemoryRepositories {
+
+    private InMemoryRepositories() {
+    }
+
+    static AccountRepository accountRepository(Account... accounts) {
+        Map<Long, Account> byId = new ConcurrentHashMap<>();
+        Map<Long, Account> byUserId = new ConcurrentHashMap<>();
+        for (Account account : accounts) {
+            byId.put(account.getId(), account);
+            byUserId.put(account.getUserId(), account);
+        }
+        return (AccountRepository) Proxy.newProxyInstance(
+                AccountRepository.class.getClassLoader(),
+                new Class<?>[]{AccountRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "findById" -> Optional.ofNullable(byId.get((Long) args[0]));
+                    case "findByUserId" -> Optional.ofNullable(byUserId.get((Long) args[0]));
+                    case "save", "saveAndFlush" -> args[0];
+                    case "flush" -> null;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryAccountRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+
+    /**
+     * Accepts and discards outbox rows.
+     */
+    static OutboxEventRepository outboxEventRepository() {
+        return (OutboxEventRepository) Proxy.newProxyInstance(
+                OutboxEventRepository.class.getClassLoader(),
+                new Class<?>[]{OutboxEventRepository.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "save" -> args[0];
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "InMemoryOutboxEventRepository";
+                    default -> throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accrual and transfer arithmetic on {@link Money} against the {@link BigDecimal} code it replaced
+ * ({@code bigDecimal*} methods). Run with {@code -prof gc} to compare allocation per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class MoneyBenchmark {
+
+    private static final BigDecimal MAX_BALANCE_MULTIPLIER = new BigDecimal("2.07");
+    private static final BigDecimal ACCRUAL_RATE = new BigDecimal("0.10");
+
+    /** Enough lazy steps to go from the initial balance to the cap. */
+    private static final long CATCH_UP_STEPS = 12;
+
+    private BigDecimal decimalInitial;
+    private BigDecimal decimalBalance;
+    private BigDecimal decimalAmount;
+    private Money initial;
+    private Money balance;
+    private Money amount;
+
+    @Setup
+    public void setUp() {
+        decimalInitial = new BigDecimal("1234.57");
+        decimalBalance = new BigDecimal("1500.01");
+        decimalAmount = new BigDecimal("12.34");
+        initial = Money.of(decimalInitial);
+        balance = Money.of(decimalBalance);
+        amount = Money.of(decimalAmount);
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalStep() {
+        return bigDecimalStep(decimalBalance, bigDecimalMaxBalance(decimalInitial));
+    }
+
+    @Benchmark
+    public long moneyStep() {
+        return AccrualService.stepCents(balance.cents(), AccrualService.maxBalanceCents(initial.cents()));
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalAccrue() {
+        BigDecimal maxBalance = bigDecimalMaxBalance(decimalInitial);
+        BigDecimal current = decimalInitial;
+        for (long i = 0; i < CATCH_UP_STEPS; i++) {
+            BigDecimal next = bigDecimalStep(current, maxBalance);
+            if (next.compareTo(current) == 0) {
+                break;
+            }
+            current = next;
+        }
+        return current;
+    }
+
+    @Benchmark
+    public Money moneyAccrue() {
+        return AccrualService.accrue(initial, initial, CATCH_UP_STEPS);
+    }
+
+    @Benchmark
+    public void bigDecimalTransfer(Blackhole blackhole) {
+        if (decimalAmount.compareTo(BigDecimal.ZERO) > 0 && decimalBalance.compareTo(decimalAmount) >= 0) {
+            blackhole.consume(decimalBalance.subtract(decimalAmount));
+            blackhole.consume(decimalBalance.add(decimalAmount));
+        }
+    }
+
+    @Benchmark
+    public void moneyTransfer(Blackhole blackhole) {
+        if (amount.signum() > 0 && !balance.isLessThan(amount)) {
+            blackhole.consume(balance.minus(amount).cents());
+            blackhole.consume(balance.plus(amount).cents());
+        }
+    }
+
+    private static BigDecimal bigDecimalMaxBalance(BigDecimal initialBalance) {
+        return initialBalance.multiply(MAX_BALANCE_MULTIPLIER).setScale(2, RoundingMode.HALF_UP);
+    }
+
+    private static BigDecimal bigDecimalStep(BigDecimal balance, BigDecimal maxBalance) {
+        if (balance.compareTo(maxBalance) >= 0) {
+            return balance;
+        }
+        BigDecimal increased = balance.add(balance.multiply(ACCRUAL_RATE).setScale(2, RoundingMode.HALF_UP));
+        return increased.compareTo(maxBalance) > 0 ? maxBalance : increased;
+    }
+}
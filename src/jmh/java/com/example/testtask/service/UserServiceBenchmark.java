@@ -0,0 +1,70 @@
+package com.example.testtask.service;
+
+import com.example.testtask.dto.UserResponse;
+import com.example.testtask.entity.Account;
+import com.example.testtask.entity.EmailData;
+import com.example.testtask.entity.Money;
+import com.example.testtask.entity.PhoneData;
+import com.example.testtask.entity.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class UserServiceBenchmark {
+
+    @Param({"1", "10"})
+    public int contacts;
+
+    private UserService userService;
+    private User user;
+    private Account account;
+    private List<EmailData> emails;
+    private List<PhoneData> phones;
+
+    @Setup
+    public void setUp() {
+        userService = new UserService(null, null, null, null, null, null, null, new AccrualService("periodic"), null, null);
+
+        user = new User();
+        user.setId(101L);
+        user.setName("Alice Johnson");
+        user.setDateOfBirth(LocalDate.of(1990, 4, 15));
+
+        account = new Account();
+        account.setUserId(101L);
+        account.setBalance(Money.of("1000.00"));
+        account.setInitialBalance(Money.of("1000.00"));
+
+        emails = new ArrayList<>();
+        phones = new ArrayList<>();
+        for (int i = 0; i < contacts; i++) {
+            EmailData email = new EmailData();
+            email.setUserId(101L);
+            email.setEmail("alice" + i + "@example.com");
+            emails.add(email);
+
+            PhoneData phone = new PhoneData();
+            phone.setUserId(101L);
+            phone.setPhone(String.valueOf(79200000000L + i));
+            phones.add(phone);
+        }
+    }
+
+    @Benchmark
+    public UserResponse mapToUserResponse() {
+        return userService.mapToUserResponse(user, account, emails, phones);
+    }
+}
@@ -1,6 +1,8 @@
 package com.example.testtask.config;
 
 import com.example.testtask.exception.GlobalExceptionHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -13,6 +15,8 @@ import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.scheduling.annotation.EnableAsync;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
 
 @Configuration
 @EnableAsync
@@ -21,6 +25,15 @@ public class AsyncConfig implements AsyncConfigurer, SchedulingConfigurer {
     @Value("${app.async.corePoolSize:5}")
     private int corePoolSize;
 
+    @Value("${app.accrual.threads:0}")
+    private int accrualThreads;
+
+    @Value("${app.accrual.queue-capacity:16}")
+    private int accrualQueueCapacity;
+
+    @Value("${app.export.max-concurrent:2}")
+    private int exportMaxConcurrent;
+
     @Bean(name = "operationExecutor")
     public Executor taskExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
@@ -32,9 +45,53 @@ public class AsyncConfig implements AsyncConfigurer, SchedulingConfigurer {
         return executor;
     }
 
+    /**
+     * Runs accrual partitions. The queue is bounded: when it is full the submitting scheduler thread runs the
+     * partition itself instead of buffering work.
+     * Queue depth is exported as executor.queued{name=accrualExecutor}.
+     */
+    @Bean(name = "accrualExecutor")
+    public ThreadPoolTaskExecutor accrualExecutor(MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("accrual.executor.rejected")
+                .description("Accrual partitions run on the submitting thread because the queue was full")
+                .register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        int threads = accrualThreads > 0 ? accrualThreads : Runtime.getRuntime().availableProcessors();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(accrualQueueCapacity);
+        executor.setThreadNamePrefix("AccrualExecutor-");
+        executor.setRejectedExecutionHandler(new CountingCallerRunsPolicy(rejected));
+        executor.setTaskDecorator(Workload.BACKGROUND::wrap);
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Writes streaming exports. Each stream holds a connection of the export pool for its whole duration, so exports
+     * take neither request nor accrual connections; the pool is sized to {@code app.export.max-concurrent}.
+     */
+    @Bean(name = "exportExecutor")
+    public ThreadPoolTaskExecutor exportExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(exportMaxConcurrent);
+        executor.setMaxPoolSize(exportMaxConcurrent);
+        executor.setQueueCapacity(exportMaxConcurrent * 4);
+        executor.setThreadNamePrefix("ExportExecutor-");
+        executor.setTaskDecorator(Workload.EXPORT::wrap);
+        executor.initialize();
+        return executor;
+    }
+
     @Bean("schedulerExecutor")
     public ThreadPoolTaskScheduler taskScheduler() {
-        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        // Scheduled jobs take their connections from the jobs pool
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                return super.newThread(Workload.BACKGROUND.wrap(runnable));
+            }
+        };
         scheduler.setPoolSize(corePoolSize);
         scheduler.setThreadNamePrefix("Scheduler-");
         scheduler.initialize();
@@ -55,4 +112,20 @@ public class AsyncConfig implements AsyncConfigurer, SchedulingConfigurer {
     public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
         return new GlobalExceptionHandler();
     }
+
+    private static class CountingCallerRunsPolicy implements RejectedExecutionHandler {
+
+        private final RejectedExecutionHandler delegate = new ThreadPoolExecutor.CallerRunsPolicy();
+        private final Counter rejected;
+
+        CountingCallerRunsPolicy(Counter rejected) {
+            this.rejected = rejected;
+        }
+
+        @Override
+        public void rejectedExecution(Runnable task, ThreadPoolExecutor executor) {
+            rejected.increment();
+            delegate.rejectedExecution(task, executor);
+        }
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,27 @@
+package com.example.testtask.config;
+
+import com.example.testtask.service.BalanceStreamService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+
+import java.nio.charset.StandardCharsets;
+
+@Configuration
+@ConditionalOnProperty(name = "app.balance-stream.fanout", havingValue = "redis", matchIfMissing = true)
+public class BalanceStreamConfig {
+
+    @Bean
+    public RedisMessageListenerContainer balanceStreamListenerContainer(RedisConnectionFactory connectionFactory,
+                                                                        BalanceStreamService balanceStreamService) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.addMessageListener(
+                (message, pattern) -> balanceStreamService.receive(new String(message.getBody(), StandardCharsets.UTF_8)),
+                new ChannelTopic(BalanceStreamService.CHANNEL));
+        return container;
+    }
+}
@@ -0,0 +1,214 @@
+package com.example.testtask.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.util.ByteUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Multi-key access to a cache region. On Redis the keys are read with a single {@code MGET} and the loaded misses
+ * are written back in one pipeline, in the same key and value format as the region's {@link Cache}, so a batch costs
+ * at most two round trips whatever its size. Other cache types go through the {@link Cache} API key by key.
+ */
+@Component
+@Slf4j
+public class BatchCache {
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final MeterRegistry meterRegistry;
+
+    public BatchCache(CacheManager cacheManager, ObjectProvider<StringRedisTemplate> redisTemplate,
+                      MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Returns the values for {@code keys} in key order. Keys not in the cache are passed to {@code loader} in one call
+     * and whatever it returns is cached; keys it leaves out are missing from the result.
+     */
+    public <K, V> Map<K, V> getAll(String cacheName, Collection<K> keys, Class<V> type,
+                                   Function<Set<K>, Map<K, V>> loader) {
+        Set<K> distinctKeys = new LinkedHashSet<>(keys);
+        if (distinctKeys.isEmpty()) {
+            return Map.of();
+        }
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return loader.apply(distinctKeys);
+        }
+
+        RedisCache redisCache = RedisCacheKeys.findRedisCache(cache);
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        Map<K, V> values = redisCache != null && template != null
+                ? getAllFromRedis(template, cache, redisCache, distinctKeys, type, loader)
+                : getAllFromCache(cache, distinctKeys, type, loader);
+
+        Map<K, V> ordered = new LinkedHashMap<>();
+        for (K key : distinctKeys) {
+            V value = values.get(key);
+            if (value != null) {
+                ordered.put(key, value);
+            }
+        }
+        return ordered;
+    }
+
+    /**
+     * Stores {@code values}, replacing existing entries; on Redis with one pipelined {@code SET} per batch.
+     */
+    public <K, V> void putAll(String cacheName, Map<K, V> values) {
+        Cache cache = values.isEmpty() ? null : cacheManager.getCache(cacheName);
+        if (cache == null) {
+            return;
+        }
+        RedisCache redisCache = RedisCacheKeys.findRedisCache(cache);
+        StringRedisTemplate template = redisTemplate.getIfAvailable();
+        if (redisCache != null && template != null) {
+            writeToRedis(template, cache, redisCache.getCacheConfiguration(), values, 0);
+        } else {
+            values.forEach(cache::put);
+        }
+    }
+
+    private <K, V> Map<K, V> getAllFromRedis(StringRedisTemplate template, Cache cache, RedisCache redisCache,
+                                             Set<K> keys, Class<V> type, Function<Set<K>, Map<K, V>> loader) {
+        RedisCacheConfiguration configuration = redisCache.getCacheConfiguration();
+        List<K> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = keyList.stream()
+                .map(key -> serializeKey(configuration, cache.getName(), key))
+                .toArray(byte[][]::new);
+
+        Map<K, V> values = new LinkedHashMap<>();
+        Set<K> misses = new LinkedHashSet<>();
+        List<byte[]> rawValues;
+        try {
+            rawValues = template.execute((RedisCallback<List<byte[]>>) connection ->
+                    connection.stringCommands().mGet(rawKeys));
+        } catch (DataAccessException e) {
+            log.warn("Batch read of {} failed, loading {} keys from source: {}", cache.getName(), keys.size(), e.getMessage());
+            return loader.apply(keys);
+        }
+        for (int i = 0; i < keyList.size(); i++) {
+            byte[] raw = rawValues != null ? rawValues.get(i) : null;
+            Object value = raw != null
+                    ? CoalescingCache.fromStoredValue(configuration.getValueSerializationPair().read(ByteBuffer.wrap(raw)))
+                    : null;
+            if (type.isInstance(value)) {
+                values.put(keyList.get(i), type.cast(value));
+            } else {
+                misses.add(keyList.get(i));
+            }
+        }
+        record(cache.getName(), values.size(), misses.size());
+        if (misses.isEmpty()) {
+            return values;
+        }
+
+        CoalescingCache coalescing = CoalescingCache.find(cache);
+        Map<K, Long> generations = new LinkedHashMap<>();
+        if (coalescing != null) {
+            misses.forEach(key -> generations.put(key, coalescing.generation(key)));
+        }
+        long start = System.currentTimeMillis();
+        Map<K, V> loaded = loader.apply(misses);
+        // per-entry share of the batch load, which is what an early refresh of the key would cost
+        long loadMillis = (System.currentTimeMillis() - start) / misses.size();
+        values.putAll(loaded);
+        writeToRedis(template, cache, configuration, loaded, loadMillis);
+        // same guard as CoalescingCache loads: drop entries evicted by a write while they were loading
+        generations.forEach((key, generation) -> coalescing.evictIfInvalidatedSince(key, generation));
+        return values;
+    }
+
+    private <K, V> void writeToRedis(StringRedisTemplate template, Cache cache, RedisCacheConfiguration configuration,
+                                     Map<K, V> loaded, long loadMillis) {
+        if (loaded.isEmpty()) {
+            return;
+        }
+        Cache storage = cache instanceof MeteredCache metered ? metered.getDelegate() : cache;
+        try {
+            template.executePipelined((RedisCallback<Object>) connection -> {
+                loaded.forEach((key, value) -> {
+                    if (value == null) {
+                        return;
+                    }
+                    Object stored = storage instanceof CoalescingCache coalescing
+                            ? coalescing.toStoredValue(value, loadMillis)
+                            : value;
+                    Duration ttl = configuration.getTtlFunction().getTimeToLive(key, value);
+                    connection.stringCommands().set(
+                            serializeKey(configuration, cache.getName(), key),
+                            ByteUtils.getBytes(configuration.getValueSerializationPair().write(stored)),
+                            ttl.isZero() || ttl.isNegative() ? Expiration.persistent() : Expiration.from(ttl),
+                            RedisStringCommands.SetOption.upsert());
+                });
+                return null;
+            });
+        } catch (DataAccessException e) {
+            log.warn("Batch write of {} failed for {} keys: {}", cache.getName(), loaded.size(), e.getMessage());
+        }
+    }
+
+    private <K, V> Map<K, V> getAllFromCache(Cache cache, Set<K> keys, Class<V> type,
+                                             Function<Set<K>, Map<K, V>> loader) {
+        Map<K, V> values = new LinkedHashMap<>();
+        Set<K> misses = new LinkedHashSet<>();
+        for (K key : keys) {
+            V value = cache.get(key, type);
+            if (value != null) {
+                values.put(key, value);
+            } else {
+                misses.add(key);
+            }
+        }
+        if (!misses.isEmpty()) {
+            Map<K, V> loaded = loader.apply(misses);
+            loaded.forEach(cache::put);
+            values.putAll(loaded);
+        }
+        return values;
+    }
+
+    private void record(String cacheName, int hits, int misses) {
+        keyCounter(cacheName, "hit").increment(hits);
+        keyCounter(cacheName, "miss").increment(misses);
+    }
+
+    private Counter keyCounter(String cacheName, String result) {
+        return Counter.builder("cache.batch.keys")
+                .description("Keys requested through batch cache reads by result")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static byte[] serializeKey(RedisCacheConfiguration configuration, String cacheName, Object key) {
+        return ByteUtils.getBytes(configuration.getKeySerializationPair()
+                .write(RedisCacheKeys.key(configuration, cacheName, key)));
+    }
+}
@@ -4,7 +4,11 @@ import com.fasterxml.jackson.annotation.JsonTypeInfo;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.jsontype.BasicPolymorphicTypeValidator;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
@@ -14,19 +18,72 @@ import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
 import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 
 @Configuration
 @EnableCaching
+@EnableConfigurationProperties(CacheRegionProperties.class)
 @ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
 public class CacheConfig {
 
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory connectionFactory, MeterRegistry meterRegistry,
+                                     CacheRegionProperties regionProperties,
+                                     @Qualifier("operationExecutor") Executor refreshExecutor,
+                                     @Value("${app.cache.early-refresh-beta:1.0}") double earlyRefreshBeta,
+                                     @Value("${app.cache.compression.enabled:true}") boolean compressionEnabled,
+                                     @Value("${app.cache.compression.threshold:1024}") int compressionThreshold,
+                                     @Value("${app.cache.compression.level:3}") int compressionLevel) {
+        RedisSerializer<Object> jsonSerializer = cacheValueSerializer();
+        // large values (users with many contacts) are stored zstd-compressed; existing plain entries stay readable
+        RedisSerializer<Object> valueSerializer = compressionEnabled
+                ? new CompressingRedisSerializer(jsonSerializer, compressionThreshold, compressionLevel, meterRegistry)
+                : jsonSerializer;
+
+        RedisCacheConfiguration baseConfiguration = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(valueSerializer));
+
+        // TTLs, prefixes and null caching per region come from app.cache.regions.* (see application.properties)
+        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
+        for (String name : regionProperties.getRegions().keySet()) {
+            cacheConfigurations.put(name, regionConfiguration(baseConfiguration, regionProperties.resolve(name)));
+        }
+
+        RedisCacheManager redisCacheManager = RedisCacheManager.builder(connectionFactory)
+                .cacheDefaults(regionConfiguration(baseConfiguration, regionProperties.getDefaults()))
+                .withInitialCacheConfigurations(cacheConfigurations)
+                .transactionAware()
+                .build();
+        // not a bean itself, so the configured regions have to be loaded explicitly
+        redisCacheManager.initializeCaches();
+
+        // users is read through @Cacheable(sync = true): single-flight loads and early refresh of hot keys
+        Duration usersTtl = regionProperties.resolve(CacheInvalidator.USERS).getTtl();
+        return new MeteredCacheManager(redisCacheManager, meterRegistry, cache -> CacheInvalidator.USERS.equals(cache.getName())
+                ? new CoalescingCache(cache, usersTtl, earlyRefreshBeta, refreshExecutor)
+                : cache);
+    }
+
+    private static RedisCacheConfiguration regionConfiguration(RedisCacheConfiguration base,
+                                                               CacheRegionProperties.Region region) {
+        RedisCacheConfiguration configuration = base.entryTtl(region.getTtl());
+        if (region.getKeyPrefix() != null) {
+            configuration = configuration.prefixCacheNameWith(region.getKeyPrefix());
+        }
+        if (!Boolean.TRUE.equals(region.getCacheNullValues())) {
+            configuration = configuration.disableCachingNullValues();
+        }
+        return configuration;
+    }
+
+    static GenericJackson2JsonRedisSerializer cacheValueSerializer() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         objectMapper.activateDefaultTyping(
@@ -37,33 +94,6 @@ public class CacheConfig {
                 JsonTypeInfo.As.PROPERTY
         );
 
-        GenericJackson2JsonRedisSerializer jsonSerializer = 
-                new GenericJackson2JsonRedisSerializer(objectMapper);
-
-        RedisCacheConfiguration defaultConfiguration = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofMinutes(5))
-                .serializeKeysWith(RedisSerializationContext.SerializationPair.fromSerializer(new StringRedisSerializer()))
-                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(jsonSerializer))
-                .disableCachingNullValues();
-
-        Map<String, RedisCacheConfiguration> cacheConfigurations = new HashMap<>();
-        
-        cacheConfigurations.put("accounts", defaultConfiguration
-                .entryTtl(Duration.ofSeconds(30)));
-        
-        cacheConfigurations.put("users", defaultConfiguration
-                .entryTtl(Duration.ofMinutes(10)));
-        
-        cacheConfigurations.put("usersByEmail", defaultConfiguration
-                .entryTtl(Duration.ofMinutes(15)));
-        
-        cacheConfigurations.put("usersByPhone", defaultConfiguration
-                .entryTtl(Duration.ofMinutes(15)));
-
-        return RedisCacheManager.builder(connectionFactory)
-                .cacheDefaults(defaultConfiguration)
-                .withInitialCacheConfigurations(cacheConfigurations)
-                .transactionAware()
-                .build();
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
     }
-} 
\ No newline at end of file
+}
@@ -0,0 +1,131 @@
+package com.example.testtask.config;
+
+import com.example.testtask.service.BalanceChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Evicts exactly the cache keys a change affects. Keys requested inside a transaction are collected and removed
+ * after it commits with a single Redis {@code DEL} across all regions; outside a transaction they are removed
+ * immediately. Rolled-back transactions evict nothing.
+ */
+@Component
+@Slf4j
+public class CacheInvalidator {
+
+    public static final String USERS = "users";
+
+    private final CacheManager cacheManager;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final boolean redis;
+
+    public CacheInvalidator(CacheManager cacheManager,
+                            ObjectProvider<StringRedisTemplate> redisTemplate,
+                            @Value("${spring.cache.type:redis}") String cacheType) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.redis = "redis".equalsIgnoreCase(cacheType.trim());
+    }
+
+    public void evict(String cacheName, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            pendingEvictions().computeIfAbsent(cacheName, name -> new LinkedHashSet<>()).addAll(keys);
+        } else {
+            Map<String, Set<Object>> evictions = new LinkedHashMap<>();
+            evictions.put(cacheName, new LinkedHashSet<>(keys));
+            evictNow(evictions);
+        }
+    }
+
+    /**
+     * Cached user responses carry the balance; drop them for every account the committed transaction changed.
+     */
+    @TransactionalEventListener
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        List<Long> userIds = event.changes().stream().map(BalanceChangedEvent.Change::userId).toList();
+        Map<String, Set<Object>> evictions = new LinkedHashMap<>();
+        evictions.put(USERS, new LinkedHashSet<>(userIds));
+        evictNow(evictions);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Set<Object>> pendingEvictions() {
+        Map<String, Set<Object>> pending = (Map<String, Set<Object>>) TransactionSynchronizationManager.getResource(this);
+        if (pending != null) {
+            return pending;
+        }
+        Map<String, Set<Object>> evictions = new LinkedHashMap<>();
+        TransactionSynchronizationManager.bindResource(this, evictions);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(CacheInvalidator.this);
+                if (status == STATUS_COMMITTED) {
+                    evictNow(evictions);
+                }
+            }
+        });
+        return evictions;
+    }
+
+    private void evictNow(Map<String, Set<Object>> evictions) {
+        try {
+            if (redis) {
+                deleteRedisKeys(evictions);
+            } else {
+                evictions.forEach((cacheName, keys) -> {
+                    Cache cache = cacheManager.getCache(cacheName);
+                    if (cache != null) {
+                        keys.forEach(cache::evict);
+                    }
+                });
+            }
+        } catch (RuntimeException e) {
+            // the change is committed; entries expire with their TTL
+            log.warn("Cache invalidation failed for {}: {}", evictions.keySet(), e.getMessage());
+        }
+    }
+
+    /**
+     * Keys are built with each region's configured prefix, falling back to the default {@code <cache name>::<key>}.
+     * Coalesced regions are told before the {@code DEL}, so loads still running do not put the old value back.
+     */
+    private void deleteRedisKeys(Map<String, Set<Object>> evictions) {
+        List<String> redisKeys = new ArrayList<>();
+        evictions.forEach((cacheName, keys) -> {
+            Cache cache = cacheManager.getCache(cacheName);
+            RedisCache redisCache = cache != null ? RedisCacheKeys.findRedisCache(cache) : null;
+            CoalescingCache coalescing = cache != null ? CoalescingCache.find(cache) : null;
+            if (coalescing != null) {
+                keys.forEach(coalescing::invalidated);
+            }
+            keys.forEach(key -> redisKeys.add(redisCache != null
+                    ? RedisCacheKeys.key(redisCache.getCacheConfiguration(), cacheName, key)
+                    : cacheName + "::" + key));
+        });
+        Long deleted = redisTemplate.getObject().delete(redisKeys);
+        if (log.isDebugEnabled()) {
+            log.debug("Evicted {} of {} cache keys in {}", deleted, redisKeys.size(), evictions.keySet());
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.example.testtask.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.search.Search;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Size limits and usage statistics of the Redis cache regions.
+ * <p>
+ * Redis evicts by memory for the whole instance, so {@code app.cache.regions.<name>.max-entries} is enforced here:
+ * every {@code app.cache.governance.interval} each bounded region is scanned and the keys beyond the limit are
+ * unlinked. SCAN returns keys in hash-table order, so the removed entries are effectively random, like Redis'
+ * {@code allkeys-random} policy applied to one region.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class CacheRegionGovernor {
+
+    private static final int SCAN_COUNT = 1000;
+    private static final int UNLINK_BATCH = 500;
+
+    private final CacheManager cacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final CacheRegionProperties regionProperties;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${app.scheduled-tasks.enabled:true}")
+    private boolean scheduledTasksEnabled;
+
+    @Value("${app.cache.governance.memory-samples:20}")
+    private int memorySamples;
+
+    public CacheRegionGovernor(CacheManager cacheManager, StringRedisTemplate redisTemplate,
+                               CacheRegionProperties regionProperties, MeterRegistry meterRegistry) {
+        this.cacheManager = cacheManager;
+        this.redisTemplate = redisTemplate;
+        this.regionProperties = regionProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public record RegionStats(long keys, long approximateBytes, Double hitRatio, long evictions,
+                              Duration ttl, Integer maxEntries, String keyPattern) {
+    }
+
+    @Scheduled(fixedDelayString = "${app.cache.governance.interval:60000}")
+    public void enforceLimits() {
+        if (!scheduledTasksEnabled) {
+            return;
+        }
+        for (String name : cacheManager.getCacheNames()) {
+            Integer maxEntries = regionProperties.resolve(name).getMaxEntries();
+            if (maxEntries == null) {
+                continue;
+            }
+            try {
+                trim(name, maxEntries);
+            } catch (RuntimeException e) {
+                log.warn("Cache region {} could not be trimmed: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Removes the keys of the region beyond {@code maxEntries}.
+     *
+     * @return the number of removed keys
+     */
+    public long trim(String cacheName, int maxEntries) {
+        String pattern = keyPattern(cacheName);
+        long seen = 0;
+        long removed = 0;
+        List<String> excess = new ArrayList<>(UNLINK_BATCH);
+        try (Cursor<String> keys = scan(pattern)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                if (++seen <= maxEntries) {
+                    continue;
+                }
+                excess.add(key);
+                if (excess.size() == UNLINK_BATCH) {
+                    removed += unlink(excess);
+                }
+            }
+        }
+        removed += unlink(excess);
+        if (removed > 0) {
+            evictions(cacheName).increment(removed);
+            log.info("Trimmed cache region {} to {} entries, removed {}", cacheName, maxEntries, removed);
+        }
+        return removed;
+    }
+
+    /**
+     * Key count from a full SCAN of the region; size extrapolated from {@code MEMORY USAGE} of the first
+     * {@code app.cache.governance.memory-samples} keys.
+     */
+    public RegionStats stats(String cacheName) {
+        String pattern = keyPattern(cacheName);
+        long count = 0;
+        List<String> sample = new ArrayList<>(memorySamples);
+        try (Cursor<String> keys = scan(pattern)) {
+            while (keys.hasNext()) {
+                String key = keys.next();
+                if (sample.size() < memorySamples) {
+                    sample.add(key);
+                }
+                count++;
+            }
+        }
+        long sampledBytes = 0;
+        int sampled = 0;
+        for (String key : sample) {
+            Long usage = memoryUsage(key);
+            if (usage != null) {
+                sampledBytes += usage;
+                sampled++;
+            }
+        }
+        long approximateBytes = sampled > 0 ? sampledBytes * count / sampled : 0;
+        CacheRegionProperties.Region region = regionProperties.resolve(cacheName);
+        return new RegionStats(count, approximateBytes, hitRatio(cacheName), (long) evictions(cacheName).count(),
+                region.getTtl(), region.getMaxEntries(), pattern);
+    }
+
+    /**
+     * Hits over lookups, counting single-key lookups and keys of batch reads.
+     */
+    private Double hitRatio(String cacheName) {
+        double hits = lookups(cacheName, "hit") + batchKeys(cacheName, "hit");
+        double misses = lookups(cacheName, "miss") + batchKeys(cacheName, "miss");
+        return hits + misses > 0 ? hits / (hits + misses) : null;
+    }
+
+    private double lookups(String cacheName, String result) {
+        return Search.in(meterRegistry).name("cache.lookup").tag("cache", cacheName).tag("result", result)
+                .timers().stream().mapToDouble(Timer::count).sum();
+    }
+
+    private double batchKeys(String cacheName, String result) {
+        return Search.in(meterRegistry).name("cache.batch.keys").tag("cache", cacheName).tag("result", result)
+                .counters().stream().mapToDouble(Counter::count).sum();
+    }
+
+    private Counter evictions(String cacheName) {
+        return Counter.builder("cache.region.evictions")
+                .description("Entries removed to keep a cache region within max-entries")
+                .tag("cache", cacheName)
+                .register(meterRegistry);
+    }
+
+    private String keyPattern(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        RedisCache redisCache = cache != null ? RedisCacheKeys.findRedisCache(cache) : null;
+        String prefix = redisCache != null
+                ? RedisCacheKeys.prefix(redisCache.getCacheConfiguration(), cacheName)
+                : cacheName + "::";
+        return prefix.replaceAll("([*?\\[\\]\\\\])", "\\\\$1") + "*";
+    }
+
+    private Cursor<String> scan(String pattern) {
+        return redisTemplate.scan(ScanOptions.scanOptions().match(pattern).count(SCAN_COUNT).build());
+    }
+
+    private long unlink(List<String> keys) {
+        if (keys.isEmpty()) {
+            return 0;
+        }
+        Long unlinked = redisTemplate.unlink(keys);
+        keys.clear();
+        return unlinked != null ? unlinked : 0;
+    }
+
+    private Long memoryUsage(String key) {
+        return redisTemplate.execute((RedisCallback<Long>) connection -> (Long) connection.execute("MEMORY",
+                "USAGE".getBytes(StandardCharsets.UTF_8), key.getBytes(StandardCharsets.UTF_8)));
+    }
+}
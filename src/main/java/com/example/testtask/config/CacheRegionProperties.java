@@ -0,0 +1,47 @@
+package com.example.testtask.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache region settings, {@code app.cache.regions.<name>.*}. Settings left out of a region, and regions that are
+ * not listed, use {@code app.cache.defaults.*}.
+ */
+@Data
+@ConfigurationProperties("app.cache")
+public class CacheRegionProperties {
+
+    private Region defaults = new Region(Duration.ofMinutes(5), null, null, false);
+
+    private Map<String, Region> regions = new LinkedHashMap<>();
+
+    /**
+     * Effective settings of a region.
+     */
+    public Region resolve(String name) {
+        Region region = regions.getOrDefault(name, new Region());
+        return new Region(
+                region.getTtl() != null ? region.getTtl() : defaults.getTtl(),
+                region.getMaxEntries() != null ? region.getMaxEntries() : defaults.getMaxEntries(),
+                region.getKeyPrefix() != null ? region.getKeyPrefix() : defaults.getKeyPrefix(),
+                region.getCacheNullValues() != null ? region.getCacheNullValues() : defaults.getCacheNullValues());
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Region {
+        private Duration ttl;
+        /** Enforced by {@link CacheRegionGovernor}; unset means unbounded. */
+        private Integer maxEntries;
+        /** Prepended to the Redis keys, which are {@code <name>::<key>} otherwise. */
+        private String keyPrefix;
+        private Boolean cacheNullValues;
+    }
+}
@@ -0,0 +1,41 @@
+package com.example.testtask.config;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code /actuator/cacheregions}: key count, approximate memory, hit ratio and settings per cache region.
+ * Each read scans the region's keys, so it is meant for operators, not for frequent polling: it is not in the default web
+ * exposure and requires the actuator {@code ADMIN} role (see {@link SecurityConfig}).
+ */
+@Component
+@Endpoint(id = "cacheregions")
+@ConditionalOnProperty(name = "spring.cache.type", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CacheRegionsEndpoint {
+
+    private final CacheManager cacheManager;
+    private final CacheRegionGovernor governor;
+
+    @ReadOperation
+    public Map<String, CacheRegionGovernor.RegionStats> regions() {
+        Map<String, CacheRegionGovernor.RegionStats> regions = new TreeMap<>();
+        for (String name : cacheManager.getCacheNames()) {
+            regions.put(name, governor.stats(name));
+        }
+        return regions;
+    }
+
+    @ReadOperation
+    public CacheRegionGovernor.RegionStats region(@Selector String name) {
+        return cacheManager.getCacheNames().contains(name) ? governor.stats(name) : null;
+    }
+}
@@ -0,0 +1,316 @@
+package com.example.testtask.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Cache decorator for hot regions, used through {@code @Cacheable(sync = true)}:
+ * <ul>
+ *     <li>concurrent misses of one key on this node share a single load (single-flight), so a cold or flushed
+ *     cache sends one query per distinct key rather than one per request;</li>
+ *     <li>hits close to expiry trigger a background reload with a probability that rises as expiry nears
+ *     (XFetch: refresh when {@code now - loadTime * beta * ln(rand) >= expiresAt}), so hot keys rarely expire.</li>
+ * </ul>
+ * Values are stored wrapped in an {@link Entry} carrying the load time and expiry.
+ * <p>
+ * A load can read a row before a writer commits and store it after the writer's eviction. Every eviction therefore
+ * advances an invalidation generation (striped by key, see {@link #invalidated}); a load records the generation
+ * before it starts and removes its own entry again if the generation moved while it ran.
+ */
+@Slf4j
+public class CoalescingCache implements Cache {
+
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final Cache delegate;
+    private final long ttlMillis;
+    private final double beta;
+    private final Executor refreshExecutor;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public CoalescingCache(Cache delegate, Duration ttl, double beta, Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.ttlMillis = ttl.toMillis();
+        this.beta = beta;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Entry {
+        private Object value;
+        private long loadMillis;
+        private long expiresAt;
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    /**
+     * The form {@code value} is kept in the underlying cache, for writers that bypass this decorator.
+     */
+    public Object toStoredValue(Object value, long loadMillis) {
+        return wrap(value, loadMillis);
+    }
+
+    /**
+     * Reverse of {@link #toStoredValue}; values written before the decorator was introduced are returned as is.
+     */
+    public static Object fromStoredValue(Object stored) {
+        return stored instanceof Entry entry ? entry.getValue() : stored;
+    }
+
+    /**
+     * Finds the decorator in a chain of cache wrappers, or {@code null} if the region is not coalesced.
+     */
+    @Nullable
+    public static CoalescingCache find(Cache cache) {
+        Cache current = cache;
+        while (current instanceof MeteredCache metered) {
+            current = metered.getDelegate();
+        }
+        return current instanceof CoalescingCache coalescing ? coalescing : null;
+    }
+
+    /**
+     * Records that the entry of {@code key} is being removed outside this decorator (e.g. a Redis {@code DEL}), so
+     * loads already running do not keep their result. Call before the removal.
+     */
+    public void invalidated(Object key) {
+        generations.incrementAndGet(stripe(key));
+    }
+
+    public long generation(Object key) {
+        return generations.get(stripe(key));
+    }
+
+    /**
+     * Removes the entry of {@code key} if it was invalidated after {@code generation} was read, i.e. it may have been
+     * loaded before a write that has evicted it since.
+     */
+    public void evictIfInvalidatedSince(Object key, long generation) {
+        if (generation(key) != generation) {
+            log.debug("Dropping {}::{} loaded across an invalidation", getName(), key);
+            delegate.evictIfPresent(key);
+        }
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        return wrapper.get() instanceof Entry entry ? new SimpleValueWrapper(entry.getValue()) : wrapper;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        Object value = wrapper != null ? wrapper.get() : null;
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @Nullable
+    @SuppressWarnings("unchecked")
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null) {
+            if (wrapper.get() instanceof Entry entry) {
+                if (shouldRefreshEarly(entry)) {
+                    refreshAsync(key, valueLoader);
+                }
+                return (T) entry.getValue();
+            }
+            return (T) wrapper.get();
+        }
+        return (T) loadOnce(key, valueLoader);
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        delegate.put(key, value != null ? wrap(value, 0) : null);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, value != null ? wrap(value, 0) : null);
+        if (existing != null && existing.get() instanceof Entry entry) {
+            return new SimpleValueWrapper(entry.getValue());
+        }
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        invalidated(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        invalidated(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        invalidatedAll();
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        invalidatedAll();
+        return delegate.invalidate();
+    }
+
+    boolean shouldRefreshEarly(Entry entry) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        // ln(random) <= 0, so the left side moves past now by a random multiple of the load time
+        return System.currentTimeMillis() - entry.getLoadMillis() * beta * Math.log(random) >= entry.getExpiresAt();
+    }
+
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, load);
+        if (running != null) {
+            return await(key, running);
+        }
+        try {
+            long generation = generation(key);
+            // another load may have finished between our miss and taking the slot
+            ValueWrapper wrapper = get(key);
+            Object value = wrapper != null ? wrapper.get() : loadAndStore(key, valueLoader, generation);
+            load.complete(value);
+            return value;
+        } catch (Throwable e) {
+            load.completeExceptionally(e);
+            throw e instanceof ValueRetrievalException retrieval ? retrieval : new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private void refreshAsync(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            return;
+        }
+        long generation = generation(key);
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    refresh.complete(loadAndStore(key, valueLoader, generation));
+                } catch (Throwable e) {
+                    log.debug("Early refresh of {}::{} failed: {}", getName(), key, e.getMessage());
+                    refresh.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, refresh);
+                }
+            });
+        } catch (RuntimeException e) {
+            // executor saturated; the entry is reloaded on expiry instead
+            inFlight.remove(key, refresh);
+            refresh.cancel(false);
+        }
+    }
+
+    private Object loadAndStore(Object key, Callable<?> valueLoader, long generation) {
+        long start = System.currentTimeMillis();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            delegate.put(key, wrap(value, System.currentTimeMillis() - start));
+            verifyAfterPut(key, generation);
+        }
+        return value;
+    }
+
+    /**
+     * Checks the generation once the put is visible: a transaction-aware delegate defers the put to after commit.
+     */
+    private void verifyAfterPut(Object key, long generation) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictIfInvalidatedSince(key, generation);
+                }
+            });
+        } else {
+            evictIfInvalidatedSince(key, generation);
+        }
+    }
+
+    private void invalidatedAll() {
+        for (int i = 0; i < GENERATION_STRIPES; i++) {
+            generations.incrementAndGet(i);
+        }
+    }
+
+    private static int stripe(Object key) {
+        return Math.floorMod(key.hashCode(), GENERATION_STRIPES);
+    }
+
+    private Entry wrap(Object value, long loadMillis) {
+        return new Entry(value, loadMillis, System.currentTimeMillis() + ttlMillis);
+    }
+
+    private static Object await(Object key, CompletableFuture<Object> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Loading cache key " + key + " failed", cause);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.testtask.config;
+
+import com.github.luben.zstd.Zstd;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.lang.Nullable;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Compresses serialized cache values of at least {@code threshold} bytes with zstd. Compressed values are written as
+ * {@link #MARKER}, the uncompressed length (4 bytes) and the zstd frame; smaller values, and values that do not
+ * shrink, are written as the delegate produced them. JSON never starts with a zero byte, so entries written before
+ * compression was enabled (or below the threshold) are read unchanged.
+ */
+public class CompressingRedisSerializer implements RedisSerializer<Object> {
+
+    static final byte MARKER = 0;
+    private static final int HEADER_LENGTH = 1 + Integer.BYTES;
+
+    private final RedisSerializer<Object> delegate;
+    private final int threshold;
+    private final int level;
+    private final DistributionSummary ratio;
+    private final Counter bytesIn;
+    private final Counter bytesOut;
+
+    public CompressingRedisSerializer(RedisSerializer<Object> delegate, int threshold, int level,
+                                      MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.threshold = threshold;
+        this.level = level;
+        this.ratio = DistributionSummary.builder("cache.compression.ratio")
+                .description("Uncompressed to compressed size of compressed cache values")
+                .register(meterRegistry);
+        this.bytesIn = Counter.builder("cache.compression.bytes")
+                .description("Bytes of cache values at or above the compression threshold, before and as stored")
+                .baseUnit("bytes")
+                .tag("stage", "uncompressed")
+                .register(meterRegistry);
+        this.bytesOut = Counter.builder("cache.compression.bytes")
+                .description("Bytes of cache values at or above the compression threshold, before and as stored")
+                .baseUnit("bytes")
+                .tag("stage", "stored")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public byte[] serialize(@Nullable Object value) throws SerializationException {
+        byte[] raw = delegate.serialize(value);
+        if (raw == null || raw.length < threshold) {
+            return raw;
+        }
+        byte[] compressed = new byte[HEADER_LENGTH + (int) Zstd.compressBound(raw.length)];
+        long written = Zstd.compressByteArray(compressed, HEADER_LENGTH, compressed.length - HEADER_LENGTH,
+                raw, 0, raw.length, level);
+        if (Zstd.isError(written)) {
+            throw new SerializationException("Could not compress cache value: " + Zstd.getErrorName(written));
+        }
+        int storedLength = HEADER_LENGTH + (int) written;
+        bytesIn.increment(raw.length);
+        if (storedLength >= raw.length) {
+            bytesOut.increment(raw.length);
+            return raw;
+        }
+        compressed[0] = MARKER;
+        ByteBuffer.wrap(compressed, 1, Integer.BYTES).putInt(raw.length);
+        ratio.record((double) raw.length / storedLength);
+        bytesOut.increment(storedLength);
+        byte[] stored = new byte[storedLength];
+        System.arraycopy(compressed, 0, stored, 0, storedLength);
+        return stored;
+    }
+
+    @Override
+    @Nullable
+    public Object deserialize(@Nullable byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0 || bytes[0] != MARKER) {
+            return delegate.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("Truncated compressed cache value");
+        }
+        int length = ByteBuffer.wrap(bytes, 1, Integer.BYTES).getInt();
+        byte[] raw = new byte[length];
+        long read = Zstd.decompressByteArray(raw, 0, length, bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH);
+        if (Zstd.isError(read) || read != length) {
+            throw new SerializationException("Could not decompress cache value"
+                    + (Zstd.isError(read) ? ": " + Zstd.getErrorName(read) : ""));
+        }
+        return delegate.deserialize(raw);
+    }
+}
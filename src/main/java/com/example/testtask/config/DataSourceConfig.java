@@ -0,0 +1,105 @@
+package com.example.testtask.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.jdbc.JdbcConnectionDetails;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Separate Hikari pools for request traffic ({@code app.datasource.interactive.hikari.*}) and background jobs
+ * ({@code app.datasource.jobs.hikari.*}), so an accrual tick cannot take the connections transfers need.
+ * Streaming exports hold a connection for the whole stream, so they get a third pool
+ * ({@code app.datasource.export.hikari.*}) sized to {@code app.export.max-concurrent} rather than taking jobs
+ * connections from accrual. All pools use the {@code spring.datasource} url and credentials; pool metrics are
+ * exported as hikaricp.*{pool}.
+ * <p>
+ * With {@code app.datasource.replica.enabled=true}, read-only transactions go to a replica pool
+ * ({@code app.datasource.replica.hikari.*}, including its jdbc-url) while {@link ReplicaLagMonitor} reports it healthy.
+ * The routing data source is wrapped in a {@link LazyConnectionDataSourceProxy} so the target is chosen at the first
+ * statement, after the transaction's read-only flag is known. Loads that fill caches stay on the primary
+ * ({@link WorkloadRoutingDataSource#readFromPrimary}) so replication lag cannot be cached.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    @Bean
+    @ConfigurationProperties("app.datasource.interactive.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties,
+                                                  ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        return createPool(properties, connectionDetails.getIfAvailable(), "interactive");
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.jobs.hikari")
+    public HikariDataSource jobsDataSource(DataSourceProperties properties,
+                                           ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        return createPool(properties, connectionDetails.getIfAvailable(), "jobs");
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.export.hikari")
+    public HikariDataSource exportDataSource(DataSourceProperties properties,
+                                             ObjectProvider<JdbcConnectionDetails> connectionDetails) {
+        return createPool(properties, connectionDetails.getIfAvailable(), "export");
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+    @ConfigurationProperties("app.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource interactiveDataSource, HikariDataSource jobsDataSource,
+                                 HikariDataSource exportDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(Workload.INTERACTIVE, interactiveDataSource);
+        targets.put(Workload.BACKGROUND, jobsDataSource);
+        targets.put(Workload.EXPORT, exportDataSource);
+
+        WorkloadRoutingDataSource routingDataSource = new WorkloadRoutingDataSource();
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (monitor != null) {
+            targets.put(WorkloadRoutingDataSource.REPLICA, monitor.getDataSource());
+            routingDataSource.setReplicaAvailable(monitor::isHealthy);
+        }
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(interactiveDataSource);
+        routingDataSource.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static HikariDataSource createPool(DataSourceProperties properties,
+                                               JdbcConnectionDetails connectionDetails, String poolName) {
+        HikariDataSource dataSource = new HikariDataSource();
+        if (connectionDetails != null) {
+            dataSource.setJdbcUrl(connectionDetails.getJdbcUrl());
+            dataSource.setUsername(connectionDetails.getUsername());
+            dataSource.setPassword(connectionDetails.getPassword());
+            dataSource.setDriverClassName(connectionDetails.getDriverClassName());
+        } else {
+            dataSource.setJdbcUrl(properties.determineUrl());
+            dataSource.setUsername(properties.determineUsername());
+            dataSource.setPassword(properties.determinePassword());
+            dataSource.setDriverClassName(properties.determineDriverClassName());
+        }
+        dataSource.setPoolName(poolName);
+        return dataSource;
+    }
+}
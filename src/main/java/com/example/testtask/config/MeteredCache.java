@@ -0,0 +1,165 @@
+package com.example.testtask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.cache.Cache;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Cache decorator recording hit/miss counts and latency per cache region.
+ */
+public class MeteredCache implements Cache {
+
+    private final Cache delegate;
+    private final Timer hits;
+    private final Timer misses;
+    private final Timer puts;
+    private final Timer evictions;
+
+    public MeteredCache(Cache delegate, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.hits = lookupTimer(meterRegistry, delegate.getName(), "hit");
+        this.misses = lookupTimer(meterRegistry, delegate.getName(), "miss");
+        this.puts = writeTimer(meterRegistry, delegate.getName(), "put");
+        this.evictions = writeTimer(meterRegistry, delegate.getName(), "evict");
+    }
+
+    public Cache getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @NonNull
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    @NonNull
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper get(@NonNull Object key) {
+        long start = System.nanoTime();
+        ValueWrapper value = delegate.get(key);
+        record(value != null ? hits : misses, start);
+        return value;
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @Nullable Class<T> type) {
+        long start = System.nanoTime();
+        T value = delegate.get(key, type);
+        record(value != null ? hits : misses, start);
+        return value;
+    }
+
+    @Override
+    @Nullable
+    public <T> T get(@NonNull Object key, @NonNull Callable<T> valueLoader) {
+        long start = System.nanoTime();
+        TrackingLoader<T> loader = new TrackingLoader<>(valueLoader);
+        T value = delegate.get(key, loader);
+        record(loader.invoked ? misses : hits, start);
+        return value;
+    }
+
+    @Override
+    @Nullable
+    public CompletableFuture<?> retrieve(@NonNull Object key) {
+        return delegate.retrieve(key);
+    }
+
+    @Override
+    @NonNull
+    public <T> CompletableFuture<T> retrieve(@NonNull Object key, @NonNull Supplier<CompletableFuture<T>> valueLoader) {
+        return delegate.retrieve(key, valueLoader);
+    }
+
+    @Override
+    public void put(@NonNull Object key, @Nullable Object value) {
+        long start = System.nanoTime();
+        delegate.put(key, value);
+        record(puts, start);
+    }
+
+    @Override
+    @Nullable
+    public ValueWrapper putIfAbsent(@NonNull Object key, @Nullable Object value) {
+        long start = System.nanoTime();
+        ValueWrapper existing = delegate.putIfAbsent(key, value);
+        record(puts, start);
+        return existing;
+    }
+
+    @Override
+    public void evict(@NonNull Object key) {
+        long start = System.nanoTime();
+        delegate.evict(key);
+        record(evictions, start);
+    }
+
+    @Override
+    public boolean evictIfPresent(@NonNull Object key) {
+        long start = System.nanoTime();
+        boolean evicted = delegate.evictIfPresent(key);
+        record(evictions, start);
+        return evicted;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    private static void record(Timer timer, long start) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer lookupTimer(MeterRegistry meterRegistry, String cacheName, String result) {
+        return Timer.builder("cache.lookup")
+                .description("Cache lookup latency by result")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Timer writeTimer(MeterRegistry meterRegistry, String cacheName, String operation) {
+        return Timer.builder("cache.write")
+                .description("Cache write latency by operation")
+                .tag("cache", cacheName)
+                .tag("operation", operation)
+                .register(meterRegistry);
+    }
+
+    private static final class TrackingLoader<T> implements Callable<T> {
+
+        private final Callable<T> delegate;
+        private boolean invoked;
+
+        private TrackingLoader(Callable<T> delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public T call() throws Exception {
+            invoked = true;
+            return delegate.call();
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.example.testtask.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.lang.NonNull;
+import org.springframework.lang.Nullable;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.UnaryOperator;
+
+public class MeteredCacheManager implements CacheManager {
+
+    private final CacheManager delegate;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Cache> caches = new ConcurrentHashMap<>();
+
+    private final UnaryOperator<Cache> decorator;
+
+    public MeteredCacheManager(CacheManager delegate, MeterRegistry meterRegistry) {
+        this(delegate, meterRegistry, UnaryOperator.identity());
+    }
+
+    /**
+     * @param decorator applied to each region below the metrics layer, e.g. to add {@link CoalescingCache}
+     */
+    public MeteredCacheManager(CacheManager delegate, MeterRegistry meterRegistry, UnaryOperator<Cache> decorator) {
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.decorator = decorator;
+    }
+
+    public CacheManager getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    @Nullable
+    public Cache getCache(@NonNull String name) {
+        Cache cache = caches.get(name);
+        if (cache != null) {
+            return cache;
+        }
+        Cache target = delegate.getCache(name);
+        if (target == null) {
+            return null;
+        }
+        return caches.computeIfAbsent(name, key -> new MeteredCache(decorator.apply(target), meterRegistry));
+    }
+
+    @Override
+    @NonNull
+    public Collection<String> getCacheNames() {
+        return delegate.getCacheNames();
+    }
+}
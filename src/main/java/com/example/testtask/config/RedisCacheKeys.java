@@ -0,0 +1,47 @@
+package com.example.testtask.config;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+
+/**
+ * Redis key layout of cache entries, for code that talks to Redis directly instead of through {@link Cache}.
+ */
+final class RedisCacheKeys {
+
+    private RedisCacheKeys() {
+    }
+
+    /**
+     * The {@link RedisCache} under the {@link MeteredCache}, {@link CoalescingCache} and
+     * {@link TransactionAwareCacheDecorator} layers, if any.
+     */
+    static RedisCache findRedisCache(Cache cache) {
+        Cache current = cache;
+        while (true) {
+            if (current instanceof RedisCache redisCache) {
+                return redisCache;
+            } else if (current instanceof MeteredCache metered) {
+                current = metered.getDelegate();
+            } else if (current instanceof CoalescingCache coalescing) {
+                current = coalescing.getDelegate();
+            } else if (current instanceof TransactionAwareCacheDecorator transactionAware) {
+                current = transactionAware.getTargetCache();
+            } else {
+                return null;
+            }
+        }
+    }
+
+    static String prefix(RedisCacheConfiguration configuration, String cacheName) {
+        return configuration.usePrefix() ? configuration.getKeyPrefixFor(cacheName) : "";
+    }
+
+    /**
+     * Same conversion as {@link RedisCache}: the key is converted to a string and prefixed per region.
+     */
+    static String key(RedisCacheConfiguration configuration, String cacheName, Object key) {
+        return prefix(configuration, cacheName) + configuration.getConversionService().convert(key, String.class);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.testtask.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Polls the replica's replay lag. Read-only transactions are routed to the replica only while it is reachable
+ * and at most {@code app.datasource.replica.max-lag} behind; otherwise they fall back to the primary.
+ */
+@Component
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+@Slf4j
+public class ReplicaLagMonitor {
+
+    // 0 when caught up with everything received, or when the server is not a standby at all
+    private static final String LAG_QUERY = "SELECT CASE" +
+            " WHEN NOT pg_is_in_recovery() THEN 0" +
+            " WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0" +
+            " ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final DataSource replicaDataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration maxLag;
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean healthy;
+
+    public ReplicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                             @Value("${app.datasource.replica.max-lag:5s}") Duration maxLag,
+                             MeterRegistry meterRegistry) {
+        this.replicaDataSource = replicaDataSource;
+        this.jdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+        Gauge.builder("datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replay lag of the read replica")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.healthy", this, monitor -> monitor.healthy ? 1 : 0)
+                .description("1 while read-only transactions are routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public DataSource getDataSource() {
+        return replicaDataSource;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval:1000}")
+    public void refresh() {
+        boolean wasHealthy = healthy;
+        try {
+            Double lag = jdbcTemplate.queryForObject(LAG_QUERY, Double.class);
+            lagSeconds = lag != null ? lag : 0;
+            healthy = lagSeconds * 1000 <= maxLag.toMillis();
+        } catch (Exception e) {
+            lagSeconds = Double.NaN;
+            healthy = false;
+            if (wasHealthy) {
+                log.warn("Read replica unavailable, routing reads to the primary: {}", e.getMessage());
+            }
+            return;
+        }
+        if (wasHealthy != healthy) {
+            log.warn("Read replica lag {}s, routing reads to the {}", lagSeconds, healthy ? "replica" : "primary");
+        }
+    }
+}
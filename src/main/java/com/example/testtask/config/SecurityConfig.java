@@ -1,24 +1,31 @@
 package com.example.testtask.config;
 
 import com.example.testtask.service.JwtService;
+import jakarta.servlet.DispatcherType;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpMethod;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.stereotype.Component;
@@ -39,6 +46,8 @@ public class SecurityConfig {
         http.csrf(AbstractHttpConfigurer::disable)
             .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
             .authorizeHttpRequests(auth -> auth
+                // completion dispatch of streaming responses; the request was authorized on the initial dispatch
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/users").permitAll()
                 .requestMatchers(HttpMethod.POST, "/api/auth/login").permitAll()
                 .requestMatchers("/swagger-ui/**", "/v3/api-docs/**", "/swagger-ui.html", "/api-docs/**").permitAll()
@@ -49,6 +58,53 @@ public class SecurityConfig {
         return http.build();
     }
     
+    /**
+     * Actuator endpoints other than health are for operators: HTTP Basic against the {@code app.management.*}
+     * accounts, which user JWTs cannot satisfy. {@code metrics} may read metrics, {@code admin} every endpoint.
+     */
+    @Bean
+    @Order(1)
+    public SecurityFilterChain actuatorFilterChain(HttpSecurity http) throws Exception {
+        http.securityMatcher("/actuator/**")
+            .csrf(AbstractHttpConfigurer::disable)
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .authorizeHttpRequests(auth -> auth
+                .requestMatchers("/actuator/health/**").permitAll()
+                .requestMatchers("/actuator/prometheus", "/actuator/metrics/**").hasRole("METRICS")
+                .requestMatchers("/actuator/cacheregions/**").hasRole("ADMIN")
+                .anyRequest().hasRole("ADMIN")
+            )
+            .httpBasic(Customizer.withDefaults());
+
+        return http.build();
+    }
+
+    /**
+     * Operator accounts for the actuator; an account without a password is not created.
+     */
+    @Bean
+    public UserDetailsService actuatorUserDetailsService(
+            PasswordEncoder passwordEncoder,
+            @Value("${app.management.metrics.username:metrics}") String metricsUsername,
+            @Value("${app.management.metrics.password:}") String metricsPassword,
+            @Value("${app.management.admin.username:admin}") String adminUsername,
+            @Value("${app.management.admin.password:}") String adminPassword) {
+        InMemoryUserDetailsManager users = new InMemoryUserDetailsManager();
+        if (!metricsPassword.isBlank()) {
+            users.createUser(User.withUsername(metricsUsername)
+                    .password(passwordEncoder.encode(metricsPassword))
+                    .roles("METRICS")
+                    .build());
+        }
+        if (!adminPassword.isBlank()) {
+            users.createUser(User.withUsername(adminUsername)
+                    .password(passwordEncoder.encode(adminPassword))
+                    .roles("METRICS", "ADMIN")
+                    .build());
+        }
+        return users;
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
@@ -0,0 +1,32 @@
+package com.example.testtask.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebMvcConfig implements WebMvcConfigurer {
+
+    private final ThreadPoolTaskExecutor exportExecutor;
+    private final Duration asyncTimeout;
+
+    public WebMvcConfig(@Qualifier("exportExecutor") ThreadPoolTaskExecutor exportExecutor,
+                        @Value("${app.export.timeout:30m}") Duration asyncTimeout) {
+        this.exportExecutor = exportExecutor;
+        this.asyncTimeout = asyncTimeout;
+    }
+
+    /**
+     * Streaming responses (the NDJSON export) are written on the export executor and may run for long.
+     */
+    @Override
+    public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+        configurer.setTaskExecutor(exportExecutor);
+        configurer.setDefaultTimeout(asyncTimeout.toMillis());
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.testtask.config;
+
+/**
+ * Kind of work running on the current thread; selects the connection pool in {@link WorkloadRoutingDataSource}.
+ * Threads are {@link #INTERACTIVE} unless a task is wrapped, e.g. by an executor's task decorator.
+ */
+public enum Workload {
+    INTERACTIVE,
+    BACKGROUND,
+    /** Streaming exports, which hold a connection for the whole stream. */
+    EXPORT;
+
+    private static final ThreadLocal<Workload> CURRENT = new ThreadLocal<>();
+
+    public static Workload current() {
+        Workload workload = CURRENT.get();
+        return workload != null ? workload : INTERACTIVE;
+    }
+
+    public Runnable wrap(Runnable task) {
+        return () -> {
+            Workload previous = CURRENT.get();
+            CURRENT.set(this);
+            try {
+                task.run();
+            } finally {
+                if (previous != null) {
+                    CURRENT.set(previous);
+                } else {
+                    CURRENT.remove();
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.testtask.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Hands out connections from the pool of the current thread's {@link Workload}, or from the replica
+ * for read-only transactions while it is available, except inside {@link #readFromPrimary}.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    public static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> PRIMARY_READS = new ThreadLocal<>();
+
+    private BooleanSupplier replicaAvailable = () -> false;
+
+    /**
+     * Runs {@code action} with its read-only transactions on the primary. Used for loads whose results are cached:
+     * a replica up to {@code max-lag} behind would put the old value back into the cache right after a write evicted
+     * it, and it would then be served for the region's whole TTL. The pool is chosen at a transaction's first
+     * statement, so this has to be entered before that statement runs.
+     */
+    public static <T> T readFromPrimary(Supplier<T> action) {
+        Boolean previous = PRIMARY_READS.get();
+        PRIMARY_READS.set(Boolean.TRUE);
+        try {
+            return action.get();
+        } finally {
+            if (previous != null) {
+                PRIMARY_READS.set(previous);
+            } else {
+                PRIMARY_READS.remove();
+            }
+        }
+    }
+
+    public void setReplicaAvailable(BooleanSupplier replicaAvailable) {
+        this.replicaAvailable = replicaAvailable;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && PRIMARY_READS.get() == null
+                && replicaAvailable.getAsBoolean()) {
+            return REPLICA;
+        }
+        return Workload.current();
+    }
+}
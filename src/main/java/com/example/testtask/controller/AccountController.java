@@ -1,19 +1,27 @@
 package com.example.testtask.controller;
 
 import com.example.testtask.dto.TransferRequest;
+import com.example.testtask.entity.Account;
 import com.example.testtask.service.AccountService;
+import com.example.testtask.service.AccrualService;
+import com.example.testtask.service.BalanceStreamService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/accounts")
@@ -24,6 +32,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccrualService accrualService;
+    private final BalanceStreamService balanceStreamService;
 
     @PostMapping("/transfer")
     @Operation(summary = "Transfer money", description = "Transfer money from current user to another user")
@@ -32,14 +42,34 @@ public class AccountController {
             Authentication authentication) {
 
         Long fromUserId = Long.valueOf(authentication.getName());
-        log.info("Transfer request received: from={}, to={}, amount={}",
-                fromUserId, request.getTransferTo(), request.getAmount());
+        if (log.isDebugEnabled()) {
+            log.debug("Transfer request received: from={}, to={}, amount={}",
+                    fromUserId, request.getTransferTo(), request.getAmount());
+        }
         accountService.transferMoney(fromUserId, request);
 
-        log.info("Transfer request completed successfully: from={}, to={}, amount={}",
-                fromUserId, request.getTransferTo(), request.getAmount());
+        if (log.isDebugEnabled()) {
+            log.debug("Transfer request completed successfully: from={}, to={}, amount={}",
+                    fromUserId, request.getTransferTo(), request.getAmount());
+        }
 
         return ResponseEntity.ok().build();
     }
 
+    @GetMapping(value = "/balance/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream balance", description = "Server-sent events with the current user's balance: "
+            + "the current value on connect, then every committed change from transfers and accrual")
+    public ResponseEntity<SseEmitter> streamBalance(Authentication authentication) {
+        Long userId = Long.valueOf(authentication.getName());
+        Optional<Account> account = accountService.getAccountByUserId(userId);
+        if (account.isEmpty()) {
+            log.debug("Balance stream request: account not found - userID={}", userId);
+            return ResponseEntity.notFound().build();
+        }
+
+        log.debug("Balance stream opened: userID={}", userId);
+        return ResponseEntity.ok(balanceStreamService.subscribe(userId,
+                accrualService.currentBalance(account.get()).toBigDecimal(), account.get().getVersion()));
+    }
+
 } 
\ No newline at end of file
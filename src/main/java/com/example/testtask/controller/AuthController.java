@@ -23,11 +23,11 @@ public class AuthController {
     @PostMapping("/login")
     @Operation(summary = "User login", description = "Authenticate user with email/phone and password")
     public ResponseEntity<AuthResponse> login(@Valid @RequestBody AuthRequest request) {
-        log.info("Authentication request received: login={}", request.getLogin());
+        log.debug("Authentication request received: login={}", request.getLogin());
 
         AuthResponse response = userService.authenticate(request);
 
-        log.info("Authentication request completed successfully: login={}", request.getLogin());
+        log.debug("Authentication request completed successfully: login={}", request.getLogin());
         return ResponseEntity.ok(response);
     }
 } 
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.example.testtask.controller;
 
 import com.example.testtask.dto.*;
 import com.example.testtask.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -14,11 +15,17 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -29,6 +36,7 @@ import java.util.Optional;
 public class UserController {
 
     private final UserService userService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping
     @Operation(summary = "Create a new user", description = "Creates a new user with account, emails and phones")
@@ -106,13 +114,46 @@ public class UserController {
             @Parameter(description = "Page size")
             @RequestParam(defaultValue = "10") int size) {
 
-        log.info("User search request received: dateOfBirth={}, phone={}, name={}, email={}, page={}, size={}",
-                dateOfBirth, phone, name, email, page, size);
+        if (log.isDebugEnabled()) {
+            log.debug("User search request received: dateOfBirth={}, phone={}, name={}, email={}, page={}, size={}",
+                    dateOfBirth, phone, name, email, page, size);
+        }
 
         Pageable pageable = PageRequest.of(page, size);
         Page<UserResponse> users = userService.searchUsers(dateOfBirth, phone, name, email, pageable);
 
-        log.info("User search request completed successfully: found {} users", users.getNumberOfElements());
+        log.debug("User search request completed successfully: found {} users", users.getNumberOfElements());
         return ResponseEntity.ok(users);
     }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @SecurityRequirement(name = "bearerAuth")
+    @Operation(summary = "Export users", description = "Streams all users matching the search filters as NDJSON, one user per line")
+    public ResponseEntity<StreamingResponseBody> exportUsers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dateOfBirth,
+            @RequestParam(required = false) String phone,
+            @RequestParam(required = false) String name,
+            @RequestParam(required = false) String email) {
+
+        if (log.isDebugEnabled()) {
+            log.debug("User export request received: dateOfBirth={}, phone={}, name={}, email={}",
+                    dateOfBirth, phone, name, email);
+        }
+
+        StreamingResponseBody body = out -> userService.exportUsers(dateOfBirth, phone, name, email,
+                batch -> writeLines(out, batch));
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private void writeLines(OutputStream out, List<UserResponse> users) {
+        try {
+            for (UserResponse user : users) {
+                out.write(objectMapper.writeValueAsBytes(user));
+                out.write('\n');
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
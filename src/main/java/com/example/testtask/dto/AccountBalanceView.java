@@ -0,0 +1,11 @@
+package com.example.testtask.dto;
+
+import com.example.testtask.entity.Money;
+
+import java.time.Instant;
+
+/**
+ * Read-only projection of the account columns needed to compute the current balance.
+ */
+public record AccountBalanceView(Long userId, Money balance, Money initialBalance, Instant lastAccrualAt) {
+}
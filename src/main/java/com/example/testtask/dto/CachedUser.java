@@ -0,0 +1,37 @@
+package com.example.testtask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * {@code users} cache entry: the user with the stored (not accrued) balance and the account columns lazy accrual
+ * needs, so the current balance is computed on every read rather than frozen at load time. {@code initialBalance}
+ * is {@code null} for a user without an account.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedUser {
+
+    private UserResponse user;
+    private BigDecimal initialBalance;
+    private Instant lastAccrualAt;
+
+    public static CachedUser of(UserView user, AccountBalanceView account, List<String> emails, List<String> phones) {
+        UserResponse response = new UserResponse();
+        response.setId(user.id());
+        response.setName(user.name());
+        response.setDateOfBirth(user.dateOfBirth());
+        response.setBalance(account != null ? account.balance().toBigDecimal() : BigDecimal.ZERO);
+        response.setEmails(emails);
+        response.setPhones(phones);
+        return account != null
+                ? new CachedUser(response, account.initialBalance().toBigDecimal(), account.lastAccrualAt())
+                : new CachedUser(response, null, null);
+    }
+}
@@ -0,0 +1,7 @@
+package com.example.testtask.dto;
+
+/**
+ * Email or phone of a user, for batched contact lookups.
+ */
+public record ContactView(Long userId, String value) {
+}
@@ -0,0 +1,19 @@
+package com.example.testtask.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact login cache entry for the {@code credentialsByEmail} and {@code credentialsByPhone} regions.
+ * {@code version} is the user row version at load time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoginCredentials {
+
+    private Long userId;
+    private String passwordHash;
+    private Long version;
+}
@@ -14,5 +14,6 @@ public class TransferRequest {
     
     @NotNull(message = "Amount is required")
     @DecimalMin(value = "0.01", message = "Amount must be greater than 0")
+    @Digits(integer = 16, fraction = 2, message = "Amount must be a whole number of cents")
     private BigDecimal amount;
 } 
\ No newline at end of file
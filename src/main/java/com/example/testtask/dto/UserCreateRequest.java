@@ -25,6 +25,7 @@ public class UserCreateRequest {
     
     @NotNull(message = "Initial balance is required")
     @DecimalMin(value = "0.0", message = "Initial balance cannot be negative")
+    @Digits(integer = 16, fraction = 2, message = "Initial balance must be a whole number of cents")
     private BigDecimal initialBalance;
     
     @NotEmpty(message = "At least one email is required")
@@ -0,0 +1,9 @@
+package com.example.testtask.dto;
+
+import java.time.LocalDate;
+
+/**
+ * Read-only projection of the user columns needed for {@link UserResponse}; the password is never selected.
+ */
+public record UserView(Long id, String name, LocalDate dateOfBirth) {
+}
@@ -2,14 +2,13 @@ package com.example.testtask.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
-import java.math.BigDecimal;
+import java.time.Instant;
 
 @Entity
 @Table(name = "account")
@@ -28,9 +27,10 @@ public class Account {
     private Long userId;
     
     @NotNull(message = "Balance is required")
-    @DecimalMin(value = "0.0", message = "Balance cannot be negative")
+    @NonNegative(message = "Balance cannot be negative")
     @Column(name = "balance", nullable = false, precision = 19, scale = 2)
-    private BigDecimal balance;
+    @Convert(converter = MoneyConverter.class)
+    private Money balance;
     
     @OneToOne
     @JoinColumn(name = "user_id", referencedColumnName = "id", insertable = false, updatable = false)
@@ -38,7 +38,11 @@ public class Account {
     private User user;
     
     @Column(name = "initial_balance", nullable = false, precision = 19, scale = 2)
-    private BigDecimal initialBalance;
+    @Convert(converter = MoneyConverter.class)
+    private Money initialBalance;
+
+    @Column(name = "last_accrual_at", nullable = false)
+    private Instant lastAccrualAt;
 
     @Version
     private Long version;
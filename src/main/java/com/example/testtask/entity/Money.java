@@ -0,0 +1,94 @@
+package com.example.testtask.entity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Amount of money as a whole number of cents, the scale of the {@code DECIMAL(19,2)} balance columns.
+ * <p>
+ * Arithmetic is exact and throws {@link ArithmeticException} on {@code long} overflow, which bounds amounts to
+ * ±92,233,720,368,547,758.07. The {@code long}-based static methods are the allocation-free forms of the instance
+ * methods for loops such as accrual.
+ */
+public record Money(long cents) implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0);
+
+    private static final int SCALE = 2;
+
+    public static Money ofCents(long cents) {
+        return cents == 0 ? ZERO : new Money(cents);
+    }
+
+    /**
+     * @throws ArithmeticException if {@code amount} has non-zero digits beyond cents or does not fit in a {@code long}
+     */
+    public static Money of(BigDecimal amount) {
+        return ofCents(amount.setScale(SCALE, RoundingMode.UNNECESSARY).unscaledValue().longValueExact());
+    }
+
+    public static Money of(String amount) {
+        return of(new BigDecimal(amount));
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(cents, SCALE);
+    }
+
+    public Money plus(Money other) {
+        return ofCents(Math.addExact(cents, other.cents));
+    }
+
+    public Money minus(Money other) {
+        return ofCents(Math.subtractExact(cents, other.cents));
+    }
+
+    /**
+     * {@code this * numerator / denominator}, rounded HALF_UP to cents like {@link RoundingMode#HALF_UP}.
+     */
+    public Money multiply(long numerator, long denominator) {
+        return ofCents(multiplyHalfUp(cents, numerator, denominator));
+    }
+
+    public int signum() {
+        return Long.signum(cents);
+    }
+
+    public boolean isLessThan(Money other) {
+        return cents < other.cents;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(cents, other.cents);
+    }
+
+    @Override
+    public String toString() {
+        return toBigDecimal().toPlainString();
+    }
+
+    /**
+     * {@code cents * numerator / denominator} rounded HALF_UP (ties away from zero). The product may exceed the
+     * {@code long} range (a cap of 207% on balances above ~44.5 quadrillion cents); only the result has to fit.
+     *
+     * @throws ArithmeticException if the result overflows or {@code denominator} is not positive
+     */
+    public static long multiplyHalfUp(long cents, long numerator, long denominator) {
+        if (denominator <= 0) {
+            throw new ArithmeticException("Denominator must be positive: " + denominator);
+        }
+        long product = cents * numerator;
+        if (Math.multiplyHigh(cents, numerator) != (product >> 63)) {
+            return BigDecimal.valueOf(cents).multiply(BigDecimal.valueOf(numerator))
+                    .divide(BigDecimal.valueOf(denominator), 0, RoundingMode.HALF_UP)
+                    .longValueExact();
+        }
+        long quotient = product / denominator;
+        long remainder = Math.abs(product % denominator);
+        if (remainder >= denominator - remainder) {
+            quotient += Long.signum(product);
+        }
+        return quotient;
+    }
+}
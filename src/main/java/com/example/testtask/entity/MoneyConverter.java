@@ -0,0 +1,24 @@
+package com.example.testtask.entity;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+import java.math.BigDecimal;
+
+/**
+ * Maps {@link Money} to the {@code DECIMAL(19,2)} columns. A stored value outside the {@code long} cents range fails
+ * the load with {@link ArithmeticException} rather than being truncated.
+ */
+@Converter
+public class MoneyConverter implements AttributeConverter<Money, BigDecimal> {
+
+    @Override
+    public BigDecimal convertToDatabaseColumn(Money money) {
+        return money != null ? money.toBigDecimal() : null;
+    }
+
+    @Override
+    public Money convertToEntityAttribute(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : null;
+    }
+}
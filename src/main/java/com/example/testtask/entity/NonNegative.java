@@ -0,0 +1,36 @@
+package com.example.testtask.entity;
+
+import jakarta.validation.Constraint;
+import jakarta.validation.ConstraintValidator;
+import jakarta.validation.ConstraintValidatorContext;
+import jakarta.validation.Payload;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * {@code @DecimalMin("0.0")} for {@link Money}, which the built-in constraints do not support. {@code null} is valid.
+ */
+@Documented
+@Constraint(validatedBy = NonNegative.MoneyValidator.class)
+@Target({ElementType.FIELD, ElementType.PARAMETER})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface NonNegative {
+
+    String message() default "must be greater than or equal to 0";
+
+    Class<?>[] groups() default {};
+
+    Class<? extends Payload>[] payload() default {};
+
+    class MoneyValidator implements ConstraintValidator<NonNegative, Money> {
+
+        @Override
+        public boolean isValid(Money value, ConstraintValidatorContext context) {
+            return value == null || value.signum() >= 0;
+        }
+    }
+}
@@ -10,6 +10,7 @@ import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 
@@ -38,6 +39,12 @@ public class User {
     @Size(min = 8, max = 500, message = "Password must be between 8 and 500 characters")
     @Column(name = "password", nullable = false, length = 500)
     private String password;
+
+    @Version
+    private Long version;
+
+    @Column(name = "last_login_at")
+    private Instant lastLoginAt;
     
     @OneToOne(mappedBy = "user", cascade = CascadeType.ALL)
     @JsonIgnore
@@ -0,0 +1,29 @@
+package com.example.testtask.exception;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+@Getter
+public class TransferRejectedException extends IllegalArgumentException {
+
+    private final Reason reason;
+
+    public TransferRejectedException(Reason reason, String message) {
+        super(message);
+        this.reason = reason;
+    }
+
+    public enum Reason {
+        SELF_TRANSFER,
+        INVALID_AMOUNT,
+        SOURCE_NOT_FOUND,
+        DESTINATION_NOT_FOUND,
+        INSUFFICIENT_BALANCE,
+        NEGATIVE_BALANCE;
+
+        public String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+}
@@ -1,12 +1,42 @@
 package com.example.testtask.repository;
 
+import com.example.testtask.dto.AccountBalanceView;
 import com.example.testtask.entity.Account;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByUserId(Long userId);
+
+    @Query("SELECT new com.example.testtask.dto.AccountBalanceView(a.userId, a.balance, a.initialBalance, "
+            + "a.lastAccrualAt) FROM Account a WHERE a.userId = :userId")
+    Optional<AccountBalanceView> findBalanceViewByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.testtask.dto.AccountBalanceView(a.userId, a.balance, a.initialBalance, "
+            + "a.lastAccrualAt) FROM Account a WHERE a.userId IN :userIds")
+    List<AccountBalanceView> findBalanceViewsByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    /**
+     * Keyset page of ids in (afterId, toId] of accounts still below the accrual cap, served by the partial index
+     * idx_account_accrual_eligible (same predicate).
+     */
+    @Query(value = "SELECT a.id FROM account a WHERE a.balance < ROUND(a.initial_balance * 2.07, 2) " +
+            "AND a.id > :afterId AND a.id <= :toId ORDER BY a.id LIMIT :limit", nativeQuery = true)
+    List<Long> findAccrualEligibleIds(@Param("afterId") long afterId, @Param("toId") long toId,
+                                      @Param("limit") int limit);
+
+    @Query(value = "SELECT COALESCE(MIN(a.id), 0) FROM account a " +
+            "WHERE a.balance < ROUND(a.initial_balance * 2.07, 2)", nativeQuery = true)
+    long findMinAccrualEligibleId();
+
+    @Query(value = "SELECT COALESCE(MAX(a.id), 0) FROM account a " +
+            "WHERE a.balance < ROUND(a.initial_balance * 2.07, 2)", nativeQuery = true)
+    long findMaxAccrualEligibleId();
 } 
\ No newline at end of file
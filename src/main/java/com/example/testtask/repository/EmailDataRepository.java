@@ -1,9 +1,13 @@
 package com.example.testtask.repository;
 
+import com.example.testtask.dto.ContactView;
 import com.example.testtask.entity.EmailData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,13 @@ import java.util.Optional;
 public interface EmailDataRepository extends JpaRepository<EmailData, Long> {
     
     List<EmailData> findByUserId(Long userId);
+
+    @Query("SELECT e.email FROM EmailData e WHERE e.userId = :userId")
+    List<String> findEmailsByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.testtask.dto.ContactView(e.userId, e.email) FROM EmailData e "
+            + "WHERE e.userId IN :userIds")
+    List<ContactView> findEmailViewsByUserIdIn(@Param("userIds") Collection<Long> userIds);
     
     Optional<EmailData> findByEmail(String email);
     
@@ -0,0 +1,20 @@
+package com.example.testtask.repository;
+
+import com.example.testtask.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * Oldest pending events, locked for the current transaction; rows locked by another relay are skipped,
+     * so several nodes can drain the outbox concurrently without publishing an event twice.
+     */
+    @Query(value = "SELECT * FROM outbox_event ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEvent> lockNextBatch(@Param("limit") int limit);
+}
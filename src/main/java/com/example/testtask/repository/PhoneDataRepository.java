@@ -1,9 +1,13 @@
 package com.example.testtask.repository;
 
+import com.example.testtask.dto.ContactView;
 import com.example.testtask.entity.PhoneData;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -11,6 +15,13 @@ import java.util.Optional;
 public interface PhoneDataRepository extends JpaRepository<PhoneData, Long> {
     
     List<PhoneData> findByUserId(Long userId);
+
+    @Query("SELECT p.phone FROM PhoneData p WHERE p.userId = :userId")
+    List<String> findPhonesByUserId(@Param("userId") Long userId);
+
+    @Query("SELECT new com.example.testtask.dto.ContactView(p.userId, p.phone) FROM PhoneData p "
+            + "WHERE p.userId IN :userIds")
+    List<ContactView> findPhoneViewsByUserIdIn(@Param("userIds") Collection<Long> userIds);
     
     Optional<PhoneData> findByPhone(String phone);
     
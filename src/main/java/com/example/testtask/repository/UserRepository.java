@@ -1,28 +1,101 @@
 package com.example.testtask.repository;
 
+import com.example.testtask.dto.LoginCredentials;
+import com.example.testtask.dto.UserView;
 import com.example.testtask.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
 import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
+
+    String EXPORT_FETCH_SIZE = "500";
     
-    @Query("SELECT u FROM User u WHERE u.dateOfBirth > :dateOfBirth")
-    Page<User> findByDateOfBirthAfter(@Param("dateOfBirth") LocalDate dateOfBirth, Pageable pageable);
-    
-    @Query("SELECT u FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
-    Page<User> findByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
-    
-    @Query("SELECT u FROM User u JOIN u.emails e WHERE e.email = :email")
-    Optional<User> findByEmail(@Param("email") String email);
-    
-    @Query("SELECT u FROM User u JOIN u.phones p WHERE p.phone = :phone")
-    Optional<User> findByPhone(@Param("phone") String phone);
+    @Query("SELECT new com.example.testtask.dto.LoginCredentials(u.id, u.password, u.version) FROM User u "
+            + "JOIN u.emails e WHERE e.email = :email")
+    Optional<LoginCredentials> findCredentialsByEmail(@Param("email") String email);
+
+    @Query("SELECT new com.example.testtask.dto.LoginCredentials(u.id, u.password, u.version) FROM User u "
+            + "JOIN u.phones p WHERE p.phone = :phone")
+    Optional<LoginCredentials> findCredentialsByPhone(@Param("phone") String phone);
+
+    @Query("SELECT new com.example.testtask.dto.LoginCredentials(u.id, u.password, u.version) FROM User u "
+            + "WHERE u.id IN :ids")
+    List<LoginCredentials> findCredentialsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Records a login unless one was recorded after {@code threshold}, so frequent logins do not rewrite the row.
+     * A bulk update: the entity version is not incremented.
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.lastLoginAt = :loginAt WHERE u.id = :id "
+            + "AND (u.lastLoginAt IS NULL OR u.lastLoginAt < :threshold)")
+    int touchLastLogin(@Param("id") Long id, @Param("loginAt") Instant loginAt, @Param("threshold") Instant threshold);
+
+    // Cache warm-up: users with the most recent logins first, read through a cursor
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query(value = "SELECT id FROM users WHERE last_login_at IS NOT NULL ORDER BY last_login_at DESC LIMIT :limit",
+            nativeQuery = true)
+    Stream<Long> streamRecentlyActiveIds(@Param("limit") int limit);
+
+    // Read-only projections for the response paths: no password, no lazy associations, no persistence-context entries
+
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u WHERE u.id = :id")
+    Optional<UserView> findViewById(@Param("id") Long id);
+
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u WHERE u.id IN :ids")
+    List<UserView> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u",
+            countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserView> findAllViews(Pageable pageable);
+
+    @Query(value = "SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u "
+            + "WHERE u.dateOfBirth > :dateOfBirth",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE u.dateOfBirth > :dateOfBirth")
+    Page<UserView> findViewsByDateOfBirthAfter(@Param("dateOfBirth") LocalDate dateOfBirth, Pageable pageable);
+
+    @Query(value = "SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u "
+            + "WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))",
+            countQuery = "SELECT COUNT(u) FROM User u WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%'))")
+    Page<UserView> findViewsByNameContainingIgnoreCase(@Param("name") String name, Pageable pageable);
+
+    // Export cursors: rows are fetched from the server EXPORT_FETCH_SIZE at a time instead of all at once
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u ORDER BY u.id")
+    Stream<UserView> streamAllViews();
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u "
+            + "WHERE u.dateOfBirth > :dateOfBirth ORDER BY u.id")
+    Stream<UserView> streamViewsByDateOfBirthAfter(@Param("dateOfBirth") LocalDate dateOfBirth);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE))
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u "
+            + "WHERE LOWER(u.name) LIKE LOWER(CONCAT('%', :name, '%')) ORDER BY u.id")
+    Stream<UserView> streamViewsByNameContainingIgnoreCase(@Param("name") String name);
+
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u "
+            + "JOIN u.emails e WHERE e.email = :email")
+    Optional<UserView> findViewByEmail(@Param("email") String email);
+
+    @Query("SELECT new com.example.testtask.dto.UserView(u.id, u.name, u.dateOfBirth) FROM User u "
+            + "JOIN u.phones p WHERE p.phone = :phone")
+    Optional<UserView> findViewByPhone(@Param("phone") String phone);
 } 
\ No newline at end of file
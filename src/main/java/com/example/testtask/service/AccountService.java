@@ -2,21 +2,26 @@ package com.example.testtask.service;
 
 import com.example.testtask.dto.TransferRequest;
 import com.example.testtask.entity.Account;
+import com.example.testtask.entity.Money;
+import com.example.testtask.exception.TransferRejectedException;
+import com.example.testtask.exception.TransferRejectedException.Reason;
 import com.example.testtask.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.StaleObjectStateException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import jakarta.persistence.OptimisticLockException;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -25,6 +30,11 @@ import java.util.Optional;
 public class AccountService {
     
     private final AccountRepository accountRepository;
+    private final BalanceMetrics balanceMetrics;
+    private final TransferAuditLog transferAuditLog;
+    private final AccrualService accrualService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboxService outboxService;
     
     public Optional<Account> getAccountByUserId(Long userId) {
         log.debug("Fetching account for user ID: {}", userId);
@@ -39,24 +49,36 @@ public class AccountService {
             OptimisticLockingFailureException.class
         },
         maxAttempts = 5,
-        backoff = @Backoff(delay = 100, multiplier = 2, maxDelay = 2000)
+        backoff = @Backoff(delay = 100, multiplier = 2, maxDelay = 2000),
+        listeners = "transferRetryListener"
     )
     @Transactional
     public void transferMoney(Long fromUserId, TransferRequest request) {
         Long toUserId = request.getTransferTo();
-        BigDecimal transferAmount = request.getAmount();
+        BigDecimal requestedAmount = request.getAmount();
         
-        log.info("Initiating transfer: {} from user {} to user {}", 
-                 transferAmount, fromUserId, toUserId);
+        if (log.isDebugEnabled()) {
+            log.debug("Initiating transfer: {} from user {} to user {}", 
+                     requestedAmount, fromUserId, toUserId);
+        }
         
         if (fromUserId.equals(toUserId)) {
             log.warn("Transfer rejected: cannot transfer to yourself. User ID: {}", fromUserId);
-            throw new IllegalArgumentException("Cannot transfer money to yourself");
+            throw new TransferRejectedException(Reason.SELF_TRANSFER, "Cannot transfer money to yourself");
+        }
+        
+        Money transferAmount;
+        try {
+            transferAmount = Money.of(requestedAmount);
+        } catch (ArithmeticException e) {
+            log.warn("Transfer rejected: amount {} is not a whole number of cents. User ID: {}",
+                    requestedAmount, fromUserId);
+            throw new TransferRejectedException(Reason.INVALID_AMOUNT, "Transfer amount must be a whole number of cents");
         }
         
-        if (transferAmount.compareTo(BigDecimal.ZERO) <= 0) {
+        if (transferAmount.signum() <= 0) {
             log.warn("Transfer rejected: invalid amount {}. User ID: {}", transferAmount, fromUserId);
-            throw new IllegalArgumentException("Transfer amount must be positive");
+            throw new TransferRejectedException(Reason.INVALID_AMOUNT, "Transfer amount must be positive");
         }
         
         Optional<Account> fromAccountOpt = accountRepository.findByUserId(fromUserId);
@@ -64,33 +86,37 @@ public class AccountService {
         
         if (fromAccountOpt.isEmpty()) {
             log.warn("Transfer rejected: from account not found. User ID: {}", fromUserId);
-            throw new IllegalArgumentException("Source account not found");
+            throw new TransferRejectedException(Reason.SOURCE_NOT_FOUND, "Source account not found");
         }
         
         if (toAccountOpt.isEmpty()) {
             log.warn("Transfer rejected: to account not found. User ID: {}", toUserId);
-            throw new IllegalArgumentException("Destination account not found");
+            throw new TransferRejectedException(Reason.DESTINATION_NOT_FOUND, "Destination account not found");
         }
         
         Account fromAccount = fromAccountOpt.get();
         Account toAccount = toAccountOpt.get();
+        accrualService.materialise(fromAccount);
+        accrualService.materialise(toAccount);
         
-        log.debug("Transfer processing: from account version={}, to account version={}", 
-                 fromAccount.getVersion(), toAccount.getVersion());
+        if (log.isDebugEnabled()) {
+            log.debug("Transfer processing: from account version={}, to account version={}", 
+                     fromAccount.getVersion(), toAccount.getVersion());
+        }
         
-        if (fromAccount.getBalance().compareTo(transferAmount) < 0) {
+        if (fromAccount.getBalance().isLessThan(transferAmount)) {
             log.warn("Transfer rejected: insufficient balance. User ID: {}, balance: {}, requested: {}", 
                     fromUserId, fromAccount.getBalance(), transferAmount);
-            throw new IllegalArgumentException("Insufficient balance");
+            throw new TransferRejectedException(Reason.INSUFFICIENT_BALANCE, "Insufficient balance");
         }
         
-        BigDecimal newFromBalance = fromAccount.getBalance().subtract(transferAmount);
-        BigDecimal newToBalance = toAccount.getBalance().add(transferAmount);
+        Money newFromBalance = fromAccount.getBalance().minus(transferAmount);
+        Money newToBalance = toAccount.getBalance().plus(transferAmount);
         
-        if (newFromBalance.compareTo(BigDecimal.ZERO) < 0) {
+        if (newFromBalance.signum() < 0) {
             log.warn("Transfer rejected: would result in negative balance. User ID: {}, new balance: {}", 
                     fromUserId, newFromBalance);
-            throw new IllegalArgumentException("Transfer would result in negative balance");
+            throw new TransferRejectedException(Reason.NEGATIVE_BALANCE, "Transfer would result in negative balance");
         }
         
         fromAccount.setBalance(newFromBalance);
@@ -98,11 +124,22 @@ public class AccountService {
         
         accountRepository.save(fromAccount);
         accountRepository.save(toAccount);
+        // the events carry the versions written by this transfer
+        accountRepository.flush();
         
-        log.info("Transfer completed successfully: {} from user {} to user {}. From balance: {} -> {}, To balance: {} -> {}", 
-                transferAmount, fromUserId, toUserId, 
-                fromAccount.getBalance().add(transferAmount), newFromBalance,
-                toAccount.getBalance().subtract(transferAmount), newToBalance);
+        if (log.isDebugEnabled()) {
+            log.debug("Transfer completed successfully: {} from user {} to user {}", 
+                    transferAmount, fromUserId, toUserId);
+        }
+        BigDecimal amount = transferAmount.toBigDecimal();
+        BigDecimal fromBalance = newFromBalance.toBigDecimal();
+        BigDecimal toBalance = newToBalance.toBigDecimal();
+        transferAuditLog.transferCompleted(fromUserId, toUserId, amount, fromBalance, toBalance);
+        eventPublisher.publishEvent(new BalanceChangedEvent(List.of(
+                new BalanceChangedEvent.Change(fromUserId, fromBalance, fromAccount.getVersion()),
+                new BalanceChangedEvent.Change(toUserId, toBalance, toAccount.getVersion()))));
+        outboxService.record(OutboxService.ACCOUNT, fromAccount.getId(), OutboxService.TRANSFER_COMPLETED,
+                new TransferCompletedEvent(fromUserId, toUserId, amount, fromBalance, toBalance));
     }
 
     @Retryable(
@@ -116,47 +153,106 @@ public class AccountService {
         backoff = @Backoff(delay = 50, multiplier = 2, maxDelay = 500)
     )
     @Transactional
-    @Async(value = "schedulerExecutor")
-    public void increaseBalance(Account account) {
+    public void increaseBalance(Long accountId) {
         try {
-            Optional<Account> currentAccountOpt = accountRepository.findByUserId(account.getUserId());
+            Optional<Account> currentAccountOpt = accountRepository.findById(accountId);
             if (currentAccountOpt.isEmpty()) {
-                log.warn("Account not found for balance increase. User ID: {}", account.getUserId());
+                log.warn("Account not found for balance increase. Account ID: {}", accountId);
                 return;
             }
             
             Account currentAccount = currentAccountOpt.get();
-            BigDecimal currentBalance = currentAccount.getBalance();
-            BigDecimal initialBalance = currentAccount.getInitialBalance();
-            
-            BigDecimal maxBalance = initialBalance.multiply(BigDecimal.valueOf(2.07));
+            Money currentBalance = currentAccount.getBalance();
+            Money maxBalance = AccrualService.maxBalance(currentAccount.getInitialBalance());
             
             if (currentBalance.compareTo(maxBalance) >= 0) {
-                log.debug("Balance already at maximum for user {}: current={}, max={}", 
-                        account.getUserId(), currentBalance, maxBalance);
+                if (log.isDebugEnabled()) {
+                    log.debug("Balance already at maximum for user {}: current={}, max={}", 
+                            currentAccount.getUserId(), currentBalance, maxBalance);
+                }
+                balanceMetrics.recordAccrualSkippedAtCap();
                 return;
             }
             
-            BigDecimal increase = currentBalance.multiply(BigDecimal.valueOf(0.10))
-                    .setScale(2, RoundingMode.HALF_UP);
-            BigDecimal newBalance = currentBalance.add(increase);
+            Money newBalance = AccrualService.step(currentBalance, maxBalance);
+            Money increase = newBalance.minus(currentBalance);
             
-            if (newBalance.compareTo(maxBalance) > 0) {
-                newBalance = maxBalance;
-                increase = maxBalance.subtract(currentBalance);
-            }
-            
-            if (increase.compareTo(BigDecimal.ZERO) > 0) {
+            if (increase.signum() > 0) {
                 currentAccount.setBalance(newBalance);
-                accountRepository.save(currentAccount);
+                currentAccount.setLastAccrualAt(accrualService.now());
+                accountRepository.saveAndFlush(currentAccount);
+                balanceMetrics.recordAccrualTouched();
+                BalanceChangedEvent event = BalanceChangedEvent.of(currentAccount.getUserId(), newBalance.toBigDecimal(),
+                        currentAccount.getVersion());
+                eventPublisher.publishEvent(event);
+                outboxService.record(OutboxService.ACCOUNT, accountId, OutboxService.BALANCE_ACCRUED, event);
                 
-                log.info("Balance increased for user {}: {} -> {} (increase: {})", 
-                        account.getUserId(), currentBalance, newBalance, increase);
+                if (log.isDebugEnabled()) {
+                    log.debug("Balance increased for user {}: {} -> {} (increase: {})", 
+                            currentAccount.getUserId(), currentBalance, newBalance, increase);
+                }
             }
             
         } catch (Exception e) {
-            log.error("Error increasing balance for user {}: {}", account.getUserId(), e.getMessage());
+            log.error("Error increasing balance for account {}: {}", accountId, e.getMessage());
             throw e;
         }
     }
-} 
\ No newline at end of file
+
+    /**
+     * Accrues one keyset batch of eligible accounts with ids in (afterId, toId] in a single transaction.
+     *
+     * @return the id to continue after, or -1 when the range is exhausted
+     */
+    @Retryable(
+        retryFor = {
+            ObjectOptimisticLockingFailureException.class, 
+            OptimisticLockException.class, 
+            StaleObjectStateException.class,
+            OptimisticLockingFailureException.class
+        },
+        maxAttempts = 5,
+        backoff = @Backoff(delay = 50, multiplier = 2, maxDelay = 500)
+    )
+    @Transactional
+    public long increaseBalances(long afterId, long toId, int limit) {
+        List<Long> accountIds = accountRepository.findAccrualEligibleIds(afterId, toId, limit);
+        if (accountIds.isEmpty()) {
+            return -1;
+        }
+        
+        Instant now = accrualService.now();
+        List<Account> changed = new ArrayList<>(accountIds.size());
+        for (Account account : accountRepository.findAllById(accountIds)) {
+            Money currentBalance = account.getBalance();
+            Money newBalance = AccrualService.step(currentBalance,
+                    AccrualService.maxBalance(account.getInitialBalance()));
+            if (newBalance.compareTo(currentBalance) > 0) {
+                account.setBalance(newBalance);
+                account.setLastAccrualAt(now);
+                balanceMetrics.recordAccrualTouched();
+                changed.add(account);
+            } else {
+                balanceMetrics.recordAccrualSkippedAtCap();
+            }
+        }
+        
+        if (!changed.isEmpty()) {
+            // the events carry the versions written by this batch
+            accountRepository.flush();
+            List<BalanceChangedEvent.Change> changes = changed.stream()
+                    .map(account -> new BalanceChangedEvent.Change(account.getUserId(),
+                            account.getBalance().toBigDecimal(), account.getVersion()))
+                    .toList();
+            // one outbox row per batch rather than per account
+            BalanceChangedEvent event = new BalanceChangedEvent(changes);
+            eventPublisher.publishEvent(event);
+            outboxService.record(OutboxService.ACCOUNT, null, OutboxService.BALANCE_ACCRUED, event);
+        }
+        
+        if (log.isDebugEnabled()) {
+            log.debug("Balance increase batch done: accounts ({}, {}], {} accounts", afterId, toId, accountIds.size());
+        }
+        return accountIds.size() < limit ? -1 : accountIds.get(accountIds.size() - 1);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.testtask.service;
+
+import com.example.testtask.dto.AccountBalanceView;
+import com.example.testtask.entity.Account;
+import com.example.testtask.entity.Money;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Locale;
+
+/**
+ * Balance accrual rule: every {@link #INTERVAL} the balance grows by 10%, rounded HALF_UP to cents,
+ * and is capped at 207% of the initial balance (also rounded to cents).
+ * <p>
+ * In {@code periodic} mode the scheduler applies one step per tick. In {@code lazy} mode
+ * ({@code app.accrual.mode=lazy}) nothing is written on a timer: the number of whole intervals elapsed since
+ * {@code last_accrual_at} is applied step by step on read and materialised when the account is modified,
+ * which yields the same balances as the periodic mode.
+ */
+@Service
+public class AccrualService {
+
+    public enum Mode { PERIODIC, LAZY }
+
+    public static final Duration INTERVAL = Duration.ofSeconds(30);
+
+    /** Keep in sync with idx_account_accrual_eligible. */
+    static final long MAX_BALANCE_PERCENT = 207;
+    static final long ACCRUAL_RATE_PERCENT = 10;
+
+    private final Mode mode;
+    private final Clock clock;
+
+    @Autowired
+    public AccrualService(@Value("${app.accrual.mode:periodic}") String mode) {
+        this(Mode.valueOf(mode.trim().toUpperCase(Locale.ROOT)), Clock.systemUTC());
+    }
+
+    public AccrualService(Mode mode, Clock clock) {
+        this.mode = mode;
+        this.clock = clock;
+    }
+
+    public boolean isLazy() {
+        return mode == Mode.LAZY;
+    }
+
+    public Instant now() {
+        return clock.instant();
+    }
+
+    public void initialise(Account account) {
+        account.setLastAccrualAt(now());
+    }
+
+    /**
+     * Balance including accrual that is due but not yet written (lazy mode only).
+     */
+    public Money currentBalance(Account account) {
+        return currentBalance(account.getBalance(), account.getInitialBalance(), account.getLastAccrualAt());
+    }
+
+    public Money currentBalance(AccountBalanceView account) {
+        return currentBalance(account.balance(), account.initialBalance(), account.lastAccrualAt());
+    }
+
+    private Money currentBalance(Money balance, Money initialBalance, Instant lastAccrualAt) {
+        if (!isLazy() || lastAccrualAt == null) {
+            return balance;
+        }
+        return accrue(balance, initialBalance, elapsedSteps(lastAccrualAt, now()));
+    }
+
+    /**
+     * Writes due accrual into the entity before it is modified (lazy mode only).
+     * {@code last_accrual_at} advances by whole intervals so the accrual phase is preserved.
+     */
+    public void materialise(Account account) {
+        if (!isLazy() || account.getLastAccrualAt() == null) {
+            return;
+        }
+        long steps = elapsedSteps(account.getLastAccrualAt(), now());
+        if (steps == 0) {
+            return;
+        }
+        account.setBalance(accrue(account.getBalance(), account.getInitialBalance(), steps));
+        account.setLastAccrualAt(account.getLastAccrualAt().plus(INTERVAL.multipliedBy(steps)));
+    }
+
+    /**
+     * Rounded to cents like the stored balance, so a capped account no longer matches the eligibility predicate.
+     */
+    public static Money maxBalance(Money initialBalance) {
+        return Money.ofCents(maxBalanceCents(initialBalance.cents()));
+    }
+
+    /**
+     * One accrual step; returns {@code balance} unchanged when it is already at the cap.
+     */
+    public static Money step(Money balance, Money maxBalance) {
+        long next = stepCents(balance.cents(), maxBalance.cents());
+        return next == balance.cents() ? balance : Money.ofCents(next);
+    }
+
+    /**
+     * Applies {@code steps} accrual steps, stopping early once the balance reaches the cap or stops changing.
+     */
+    public static Money accrue(Money balance, Money initialBalance, long steps) {
+        long current = balance.cents();
+        long maxBalance = maxBalanceCents(initialBalance.cents());
+        for (long i = 0; i < steps; i++) {
+            long next = stepCents(current, maxBalance);
+            if (next == current) {
+                break;
+            }
+            current = next;
+        }
+        return current == balance.cents() ? balance : Money.ofCents(current);
+    }
+
+    static long maxBalanceCents(long initialBalance) {
+        return Money.multiplyHalfUp(initialBalance, MAX_BALANCE_PERCENT, 100);
+    }
+
+    static long stepCents(long balance, long maxBalance) {
+        if (balance >= maxBalance) {
+            return balance;
+        }
+        long increased = Math.addExact(balance, Money.multiplyHalfUp(balance, ACCRUAL_RATE_PERCENT, 100));
+        return Math.min(increased, maxBalance);
+    }
+
+    static long elapsedSteps(Instant lastAccrualAt, Instant now) {
+        if (!now.isAfter(lastAccrualAt)) {
+            return 0;
+        }
+        return Duration.between(lastAccrualAt, now).toMillis() / INTERVAL.toMillis();
+    }
+}
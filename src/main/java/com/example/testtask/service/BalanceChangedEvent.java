@@ -0,0 +1,18 @@
+package com.example.testtask.service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Balances written by one transaction (a transfer or an accrual batch); delivered to balance streams after commit.
+ * Each change carries the account version it produced, so receivers can drop changes that arrive out of order.
+ */
+public record BalanceChangedEvent(List<Change> changes) {
+
+    public record Change(Long userId, BigDecimal balance, Long version) {
+    }
+
+    public static BalanceChangedEvent of(Long userId, BigDecimal balance, Long version) {
+        return new BalanceChangedEvent(List.of(new Change(userId, balance, version)));
+    }
+}
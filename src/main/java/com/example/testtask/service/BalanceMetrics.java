@@ -0,0 +1,93 @@
+package com.example.testtask.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Micrometer meters for the transfer and accrual hot paths.
+ */
+@Component
+public class BalanceMetrics {
+
+    public static final String OUTCOME_SUCCESS = "success";
+    public static final String OUTCOME_CONFLICT = "conflict";
+    public static final String OUTCOME_ERROR = "error";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> transferTimers = new ConcurrentHashMap<>();
+    private final Counter optimisticFailures;
+    private final DistributionSummary transferRetries;
+    private final Timer accrualTick;
+    private final Counter accrualTouched;
+    private final Counter accrualSkippedAtCap;
+    private final Counter accrualTicksSkipped;
+
+    public BalanceMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.optimisticFailures = Counter.builder("transfer.optimistic.failures")
+                .description("Transfer attempts that failed with an optimistic locking conflict")
+                .register(meterRegistry);
+        this.transferRetries = DistributionSummary.builder("transfer.retries")
+                .description("Optimistic locking retries needed per transfer")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.accrualTick = Timer.builder("accrual.tick.duration")
+                .description("Duration of a scheduled balance accrual tick")
+                .register(meterRegistry);
+        this.accrualTouched = Counter.builder("accrual.accounts.touched")
+                .description("Accounts whose balance was increased by the accrual")
+                .register(meterRegistry);
+        this.accrualSkippedAtCap = Counter.builder("accrual.accounts.skipped")
+                .description("Accounts skipped by the accrual because they reached the cap")
+                .tag("reason", "cap")
+                .register(meterRegistry);
+        this.accrualTicksSkipped = Counter.builder("accrual.ticks.skipped")
+                .description("Accrual ticks skipped because the previous tick was still running")
+                .register(meterRegistry);
+    }
+
+    public Timer.Sample startTransfer() {
+        return Timer.start(meterRegistry);
+    }
+
+    public void recordTransfer(Timer.Sample sample, String outcome, int retries) {
+        if (sample != null) {
+            sample.stop(transferTimers.computeIfAbsent(outcome, this::transferTimer));
+        }
+        transferRetries.record(retries);
+    }
+
+    public void recordOptimisticFailure() {
+        optimisticFailures.increment();
+    }
+
+    public void timeAccrualTick(Runnable tick) {
+        accrualTick.record(tick);
+    }
+
+    public void recordAccrualTouched() {
+        accrualTouched.increment();
+    }
+
+    public void recordAccrualSkippedAtCap() {
+        accrualSkippedAtCap.increment();
+    }
+
+    public void recordAccrualTickSkipped() {
+        accrualTicksSkipped.increment();
+    }
+
+    private Timer transferTimer(String outcome) {
+        return Timer.builder("transfer.duration")
+                .description("End-to-end transfer latency including optimistic locking retries")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -1,13 +1,17 @@
 package com.example.testtask.service;
 
-import com.example.testtask.entity.Account;
 import com.example.testtask.repository.AccountRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 @Service
 @RequiredArgsConstructor
@@ -16,27 +20,120 @@ public class BalanceOperationsScheduler {
 
     private final AccountRepository accountRepository;
     private final AccountService accountService;
+    private final BalanceMetrics balanceMetrics;
+    private final AccrualService accrualService;
+    private final ThreadPoolTaskExecutor accrualExecutor;
+    private final AtomicBoolean tickRunning = new AtomicBoolean();
+
+    @Value("${app.scheduled-tasks.enabled:true}")
+    private boolean scheduledTasksEnabled;
+
+    @Value("${app.accrual.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.accrual.partitions:0}")
+    private int configuredPartitions;
+
+    @Value("${app.datasource.jobs.hikari.maximum-pool-size:4}")
+    private int jobsPoolSize;
 
     @Scheduled(fixedRate = 30000)
     public void increaseBalances() {
-        log.info("Starting scheduled balance increase for all accounts");
+        if (!scheduledTasksEnabled || accrualService.isLazy()) {
+            return;
+        }
+        increaseBalances(partitions());
+    }
+
+    /**
+     * Runs one accrual tick over the eligible id range split into {@code partitions} parallel ranges.
+     * Skipped when the previous tick is still running.
+     */
+    public void increaseBalances(int partitions) {
+        if (!tickRunning.compareAndSet(false, true)) {
+            log.warn("Skipping scheduled balance increase: previous tick is still running");
+            balanceMetrics.recordAccrualTickSkipped();
+            return;
+        }
+        try {
+            balanceMetrics.timeAccrualTick(() -> dispatchBalanceIncreases(partitions));
+        } finally {
+            tickRunning.set(false);
+        }
+    }
+
+    /**
+     * app.accrual.partitions, or by default one partition per core but no more than the jobs connection pool.
+     */
+    int partitions() {
+        if (configuredPartitions > 0) {
+            return configuredPartitions;
+        }
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), jobsPoolSize));
+    }
+
+    private void dispatchBalanceIncreases(int partitions) {
+        log.debug("Starting scheduled balance increase for accounts below the cap");
         
         try {
-            List<Account> accounts = accountRepository.findAll();
-            log.debug("Found {} accounts for balance increase", accounts.size());
+            long minId = accountRepository.findMinAccrualEligibleId();
+            long maxId = accountRepository.findMaxAccrualEligibleId();
+            if (maxId == 0) {
+                log.debug("No accounts below the cap");
+                return;
+            }
             
-            for (Account account : accounts) {
-                try {
-                    accountService.increaseBalance(account);
-                } catch (Exception e) {
-                    log.error("Failed to increase balance for user {}: {}", 
-                            account.getUserId(), e.getMessage());
-                }
+            long from = minId - 1;
+            long span = maxId - from;
+            int count = (int) Math.min(partitions, span);
+            List<CompletableFuture<Void>> tasks = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                long afterId = from + span * i / count;
+                long toId = i == count - 1 ? maxId : from + span * (i + 1) / count;
+                tasks.add(CompletableFuture.runAsync(() -> increasePartition(afterId, toId), accrualExecutor));
             }
             
-            log.info("Completed scheduled balance increase for {} accounts", accounts.size());
+            CompletableFuture.allOf(tasks.toArray(CompletableFuture[]::new)).join();
+            log.info("Completed scheduled balance increase for accounts {}..{} in {} partitions", minId, maxId, count);
         } catch (Exception e) {
             log.error("Error during scheduled balance increase: {}", e.getMessage(), e);
         }
     }
+
+    private void increasePartition(long afterId, long toId) {
+        long next = afterId;
+        while (next >= 0) {
+            try {
+                next = accountService.increaseBalances(next, toId, batchSize);
+            } catch (Exception e) {
+                log.warn("Balance increase batch after account {} failed, retrying it per account: {}",
+                        next, e.getMessage());
+                next = increaseBatchPerAccount(next, toId);
+            }
+        }
+    }
+
+    /**
+     * Fallback for a batch that kept conflicting: each account of the batch gets its own transaction, so only the
+     * accounts that still conflict miss this tick and the rest of the partition continues after the batch.
+     *
+     * @return the id to continue after, or -1 when the range is exhausted or cannot be read
+     */
+    private long increaseBatchPerAccount(long afterId, long toId) {
+        List<Long> accountIds;
+        try {
+            accountIds = accountRepository.findAccrualEligibleIds(afterId, toId, batchSize);
+        } catch (Exception e) {
+            log.error("Failed to increase balances for accounts ({}, {}]: {}", afterId, toId, e.getMessage());
+            return -1;
+        }
+        for (Long accountId : accountIds) {
+            try {
+                accountService.increaseBalance(accountId);
+            } catch (Exception e) {
+                log.error("Failed to increase balance for account {}: {}", accountId, e.getMessage());
+            }
+        }
+        return accountIds.size() < batchSize ? -1 : accountIds.get(accountIds.size() - 1);
+    }
 }
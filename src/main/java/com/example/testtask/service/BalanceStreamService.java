@@ -0,0 +1,168 @@
+package com.example.testtask.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes balance changes to subscribed clients over SSE.
+ * <p>
+ * Committed {@link BalanceChangedEvent}s are published on the {@value #CHANNEL} Redis channel and every node
+ * (this one included) delivers them to its own subscribers, so a client receives updates whichever node served
+ * the change. With {@code app.balance-stream.fanout=local} events are only delivered on the node that wrote them.
+ * <p>
+ * Events are sent from several threads and nodes, so two quick changes can arrive in either order. Each stream
+ * remembers the account version of the last balance it sent and drops changes with an older or equal version.
+ */
+@Service
+@Slf4j
+public class BalanceStreamService {
+
+    public static final String CHANNEL = "balance-changes";
+    static final String EVENT_NAME = "balance";
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<StringRedisTemplate> redisTemplate;
+    private final boolean redisFanout;
+    private final Duration timeout;
+
+    public BalanceStreamService(ObjectMapper objectMapper,
+                                ObjectProvider<StringRedisTemplate> redisTemplate,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.balance-stream.fanout:redis}") String fanout,
+                                @Value("${app.balance-stream.timeout:30m}") Duration timeout) {
+        this.objectMapper = objectMapper;
+        this.redisTemplate = redisTemplate;
+        this.redisFanout = "redis".equalsIgnoreCase(fanout.trim());
+        this.timeout = timeout;
+        Gauge.builder("balance.stream.subscribers", subscriberCount, AtomicInteger::get)
+                .description("Open balance SSE streams on this node")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param version account version {@code currentBalance} was read at
+     */
+    public SseEmitter subscribe(Long userId, BigDecimal currentBalance, Long version) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+        subscribers.computeIfAbsent(userId, id -> new CopyOnWriteArraySet<>()).add(subscriber);
+        subscriberCount.incrementAndGet();
+        emitter.onCompletion(() -> remove(userId, subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> emitter.complete());
+        send(userId, subscriber, currentBalance, version);
+        return emitter;
+    }
+
+    /**
+     * Runs off the committing thread, so neither transfers nor accrual batches wait for Redis or slow clients.
+     */
+    @Async("operationExecutor")
+    @TransactionalEventListener
+    public void onBalanceChanged(BalanceChangedEvent event) {
+        if (!redisFanout) {
+            deliver(event);
+            return;
+        }
+        try {
+            redisTemplate.getObject().convertAndSend(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            log.error("Cannot serialize balance event: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Balance event fan-out failed, delivering locally: {}", e.getMessage());
+            deliver(event);
+        }
+    }
+
+    /**
+     * Entry point for events received from the {@value #CHANNEL} channel.
+     */
+    public void receive(String message) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        try {
+            deliver(objectMapper.readValue(message, BalanceChangedEvent.class));
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed balance event: {}", e.getMessage());
+        }
+    }
+
+    void deliver(BalanceChangedEvent event) {
+        for (BalanceChangedEvent.Change change : event.changes()) {
+            Set<Subscriber> userSubscribers = subscribers.get(change.userId());
+            if (userSubscribers != null) {
+                userSubscribers.forEach(subscriber ->
+                        send(change.userId(), subscriber, change.balance(), change.version()));
+            }
+        }
+    }
+
+    /**
+     * Sends the balance unless the stream has already sent one of the same or a later version; a change without a
+     * version is always sent.
+     */
+    private void send(Long userId, Subscriber subscriber, BigDecimal balance, Long version) {
+        synchronized (subscriber) {
+            if (version != null) {
+                if (subscriber.version != null && version <= subscriber.version) {
+                    if (log.isDebugEnabled()) {
+                        log.debug("Dropping stale balance of user {}: version {} after {}", userId, version, subscriber.version);
+                    }
+                    return;
+                }
+                subscriber.version = version;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event().name(EVENT_NAME)
+                        .data(Map.of("userId", userId, "balance", balance)));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping balance stream of user {}: {}", userId, e.getMessage());
+                remove(userId, subscriber);
+            }
+        }
+    }
+
+    private void remove(Long userId, Subscriber subscriber) {
+        subscribers.computeIfPresent(userId, (id, userSubscribers) -> {
+            if (userSubscribers.remove(subscriber)) {
+                subscriberCount.decrementAndGet();
+            }
+            return userSubscribers.isEmpty() ? null : userSubscribers;
+        });
+    }
+
+    /**
+     * One open stream and the account version of the last balance sent on it; guarded by its own monitor.
+     */
+    private static final class Subscriber {
+
+        private final SseEmitter emitter;
+        private Long version;
+
+        private Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.testtask.service;
+
+import com.example.testtask.config.Workload;
+import com.example.testtask.config.WorkloadRoutingDataSource;
+import com.example.testtask.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Fills the users and login caches with the most recently active users ({@code users.last_login_at}) before the
+ * instance takes traffic, so a deploy or a Redis flush does not start with a burst of misses.
+ * <p>
+ * Runs as an {@link ApplicationRunner}: readiness only switches to {@code ACCEPTING_TRAFFIC} after the runners
+ * return, i.e. once the warm-up has finished or hit {@code app.cache.warmup.timeout}. Ids are read through a cursor
+ * on the jobs pool, {@code app.cache.warmup.batch-size} at a time, at most {@code app.cache.warmup.rate} users per
+ * second. Failures are logged and never block startup.
+ */
+@Component
+@Slf4j
+public class CacheWarmup implements ApplicationRunner {
+
+    private final UserRepository userRepository;
+    private final UserService userService;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${app.cache.warmup.enabled:false}")
+    private boolean enabled;
+
+    @Value("${app.cache.warmup.users:10000}")
+    private int users;
+
+    @Value("${app.cache.warmup.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.cache.warmup.rate:5000}")
+    private int rate;
+
+    @Value("${app.cache.warmup.timeout:30s}")
+    private Duration timeout;
+
+    public CacheWarmup(UserRepository userRepository, UserService userService,
+                       PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.userService = userService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled && users > 0) {
+            Workload.BACKGROUND.wrap(this::warmUp).run();
+        }
+    }
+
+    /**
+     * @return the number of cached users
+     */
+    public int warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + timeout.toNanos();
+        try {
+            Integer warmed = WorkloadRoutingDataSource.readFromPrimary(
+                    () -> readOnlyTransaction.execute(status -> warmUp(start, deadline)));
+            log.info("Cache warm-up cached {} users in {} ms", warmed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return warmed != null ? warmed : 0;
+        } catch (RuntimeException e) {
+            log.warn("Cache warm-up failed, starting with a cold cache: {}", e.getMessage());
+            return 0;
+        }
+    }
+
+    private int warmUp(long start, long deadline) {
+        int warmed = 0;
+        try (Stream<Long> ids = userRepository.streamRecentlyActiveIds(users)) {
+            List<Long> batch = new ArrayList<>(batchSize);
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() < batchSize && iterator.hasNext()) {
+                    continue;
+                }
+                if (System.nanoTime() >= deadline) {
+                    log.warn("Cache warm-up timed out after {} users", warmed);
+                    break;
+                }
+                warmed += userService.warmUpCaches(batch);
+                batch.clear();
+                throttle(start, deadline, warmed);
+            }
+        }
+        return warmed;
+    }
+
+    private void throttle(long start, long deadline, int warmed) {
+        if (rate <= 0) {
+            return;
+        }
+        long due = start + TimeUnit.SECONDS.toNanos(warmed) / rate;
+        long sleep = Math.min(due, deadline) - System.nanoTime();
+        if (sleep > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleep);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
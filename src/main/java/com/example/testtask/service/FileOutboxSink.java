@@ -0,0 +1,62 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.OutboxEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Appends events as NDJSON lines to {@code app.outbox.file}, one write per batch.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+    private final Path file;
+
+    public FileOutboxSink(ObjectMapper objectMapper, @Value("${app.outbox.file:outbox.ndjson}") Path file) {
+        this.objectMapper = objectMapper;
+        this.file = file;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        StringBuilder lines = new StringBuilder();
+        for (OutboxEvent event : events) {
+            lines.append(toLine(event)).append('\n');
+        }
+        try {
+            Files.writeString(file, lines, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private String toLine(OutboxEvent event) {
+        try {
+            ObjectNode line = objectMapper.createObjectNode();
+            line.put("id", event.getId());
+            line.put("type", event.getEventType());
+            line.put("aggregateType", event.getAggregateType());
+            line.put("aggregateId", event.getAggregateId());
+            line.put("createdAt", event.getCreatedAt().toString());
+            line.set("payload", objectMapper.readTree(event.getPayload()));
+            return objectMapper.writeValueAsString(line);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed outbox payload of event " + event.getId(), e);
+        }
+    }
+}
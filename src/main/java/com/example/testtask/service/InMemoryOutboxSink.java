@@ -0,0 +1,27 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.OutboxEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Keeps relayed events in memory; for tests.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+public class InMemoryOutboxSink implements OutboxSink {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Writes event metadata to the {@code outbox} logger. Payloads are not logged: user events carry emails and phones,
+ * which do not belong in application logs. Use the {@code file} sink to capture payloads.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "log", matchIfMissing = true)
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger outbox = LoggerFactory.getLogger("outbox");
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            outbox.info("{} {}:{} id={}", event.getEventType(), event.getAggregateType(), event.getAggregateId(),
+                    event.getId());
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.testtask.service;
+
+import java.util.regex.Pattern;
+
+/**
+ * Classifies a login string by format so authentication queries only the matching lookup.
+ * Phones follow the 11-digit format enforced on registration; anything with an {@code @} is treated as an email.
+ */
+public enum LoginType {
+    EMAIL,
+    PHONE,
+    UNKNOWN;
+
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^\\d{11}$");
+
+    public static LoginType of(String login) {
+        if (login == null || login.isBlank()) {
+            return UNKNOWN;
+        }
+        if (PHONE_PATTERN.matcher(login).matches()) {
+            return PHONE;
+        }
+        return login.indexOf('@') > 0 ? EMAIL : UNKNOWN;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.OutboxEvent;
+import com.example.testtask.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Drains {@code outbox_event} to the {@link OutboxSink}. Each batch is locked with {@code FOR UPDATE SKIP LOCKED},
+ * published and deleted in one transaction, so a failed publish leaves the batch for the next poll.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.scheduled-tasks.enabled:true}")
+    private boolean scheduledTasksEnabled;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval:1000}")
+    public void poll() {
+        if (!scheduledTasksEnabled) {
+            return;
+        }
+        try {
+            relayPending();
+        } catch (Exception e) {
+            log.error("Outbox relay failed, retrying on next poll: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Relays batches until the outbox is empty (or only holds rows locked by another relay).
+     *
+     * @return the number of published events
+     */
+    public long relayPending() {
+        long published = 0;
+        int relayed;
+        do {
+            relayed = transactionTemplate.execute(status -> relayBatch());
+            published += relayed;
+        } while (relayed == batchSize);
+        if (published > 0) {
+            log.debug("Outbox relay published {} events", published);
+        }
+        return published;
+    }
+
+    private int relayBatch() {
+        List<OutboxEvent> events = outboxEventRepository.lockNextBatch(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+        outboxSink.publish(events);
+        outboxEventRepository.deleteAllInBatch(events);
+        return events.size();
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.OutboxEvent;
+import com.example.testtask.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Transactional outbox: events are stored in {@code outbox_event} by the transaction that made the change and
+ * handed to the {@link OutboxSink} by {@link OutboxRelay} after commit, so an event exists iff its change committed.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    public static final String ACCOUNT = "account";
+    public static final String USER = "user";
+
+    public static final String TRANSFER_COMPLETED = "TransferCompleted";
+    public static final String BALANCE_ACCRUED = "BalanceAccrued";
+    public static final String USER_CREATED = "UserCreated";
+    public static final String USER_UPDATED = "UserUpdated";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(String aggregateType, Long aggregateId, String eventType, Object payload) {
+        OutboxEvent event = new OutboxEvent();
+        event.setAggregateType(aggregateType);
+        event.setAggregateId(aggregateId);
+        event.setEventType(eventType);
+        event.setPayload(toJson(payload));
+        event.setCreatedAt(Instant.now());
+        outboxEventRepository.save(event);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox payload " + payload.getClass().getSimpleName(), e);
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.testtask.service;
+
+import com.example.testtask.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination of relayed outbox events, selected with {@code app.outbox.sink}. Delivery is at least once:
+ * when {@link #publish} throws, the batch stays in the outbox and is offered again on the next poll.
+ */
+public interface OutboxSink {
+
+    void publish(List<OutboxEvent> events);
+}
@@ -0,0 +1,50 @@
+package com.example.testtask.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Audit trail for completed transfers on the dedicated {@code audit.transfer} logger.
+ * Only a fraction of transfers ({@code app.audit.transfers.sample-rate}, 0..1) is written, after the transaction commits.
+ */
+@Component
+public class TransferAuditLog {
+
+    private static final Logger audit = LoggerFactory.getLogger("audit.transfer");
+
+    private final double sampleRate;
+
+    public TransferAuditLog(@Value("${app.audit.transfers.sample-rate:1.0}") double sampleRate) {
+        this.sampleRate = Math.max(0.0, Math.min(1.0, sampleRate));
+    }
+
+    public void transferCompleted(Long fromUserId, Long toUserId, BigDecimal amount,
+                                  BigDecimal fromBalance, BigDecimal toBalance) {
+        if (!audit.isInfoEnabled() || !sampled()) {
+            return;
+        }
+        Runnable entry = () -> audit.info("transfer from={} to={} amount={} fromBalance={} toBalance={}",
+                fromUserId, toUserId, amount, fromBalance, toBalance);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    entry.run();
+                }
+            });
+        } else {
+            entry.run();
+        }
+    }
+
+    private boolean sampled() {
+        return sampleRate >= 1.0 || (sampleRate > 0.0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.testtask.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Outbox payload of a committed transfer.
+ */
+public record TransferCompletedEvent(Long fromUserId, Long toUserId, BigDecimal amount,
+                                     BigDecimal fromBalance, BigDecimal toBalance) {
+}
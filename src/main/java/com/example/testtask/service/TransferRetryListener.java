@@ -0,0 +1,71 @@
+package com.example.testtask.service;
+
+import com.example.testtask.exception.TransferRejectedException;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.OptimisticLockException;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.StaleObjectStateException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records latency, outcome and optimistic locking retries for {@link AccountService#transferMoney}.
+ * Registered on the {@code @Retryable} so one sample covers every attempt of a single transfer.
+ */
+@Component("transferRetryListener")
+@RequiredArgsConstructor
+public class TransferRetryListener implements RetryListener {
+
+    private static final String SAMPLE_ATTRIBUTE = "transfer.sample";
+    private static final String CONFLICTS_ATTRIBUTE = "transfer.conflicts";
+
+    private final BalanceMetrics balanceMetrics;
+
+    @Override
+    public <T, E extends Throwable> boolean open(RetryContext context, RetryCallback<T, E> callback) {
+        context.setAttribute(SAMPLE_ATTRIBUTE, balanceMetrics.startTransfer());
+        context.setAttribute(CONFLICTS_ATTRIBUTE, 0);
+        return true;
+    }
+
+    @Override
+    public <T, E extends Throwable> void onError(RetryContext context, RetryCallback<T, E> callback,
+                                                 Throwable throwable) {
+        if (isOptimisticFailure(throwable)) {
+            balanceMetrics.recordOptimisticFailure();
+            context.setAttribute(CONFLICTS_ATTRIBUTE, (Integer) context.getAttribute(CONFLICTS_ATTRIBUTE) + 1);
+        }
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback,
+                                               Throwable throwable) {
+        String outcome = outcomeOf(throwable);
+        int conflicts = (Integer) context.getAttribute(CONFLICTS_ATTRIBUTE);
+        // the last conflict of an exhausted transfer was not followed by another attempt
+        int retries = BalanceMetrics.OUTCOME_CONFLICT.equals(outcome) ? Math.max(conflicts - 1, 0) : conflicts;
+        balanceMetrics.recordTransfer((Timer.Sample) context.getAttribute(SAMPLE_ATTRIBUTE), outcome, retries);
+    }
+
+    private static String outcomeOf(Throwable throwable) {
+        if (throwable == null) {
+            return BalanceMetrics.OUTCOME_SUCCESS;
+        }
+        if (throwable instanceof TransferRejectedException rejected) {
+            return rejected.getReason().tag();
+        }
+        if (isOptimisticFailure(throwable)) {
+            return BalanceMetrics.OUTCOME_CONFLICT;
+        }
+        return BalanceMetrics.OUTCOME_ERROR;
+    }
+
+    private static boolean isOptimisticFailure(Throwable throwable) {
+        return throwable instanceof OptimisticLockingFailureException
+                || throwable instanceof OptimisticLockException
+                || throwable instanceof StaleObjectStateException;
+    }
+}
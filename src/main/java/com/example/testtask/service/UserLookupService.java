@@ -1,26 +1,126 @@
 package com.example.testtask.service;
 
-import com.example.testtask.entity.User;
+import com.example.testtask.config.CacheInvalidator;
+import com.example.testtask.config.WorkloadRoutingDataSource;
+import com.example.testtask.dto.CachedUser;
+import com.example.testtask.dto.LoginCredentials;
+import com.example.testtask.repository.AccountRepository;
+import com.example.testtask.repository.EmailDataRepository;
+import com.example.testtask.repository.PhoneDataRepository;
 import com.example.testtask.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 @Service
 @RequiredArgsConstructor
 public class UserLookupService {
 
+    static final String CREDENTIALS_BY_EMAIL = "credentialsByEmail";
+    static final String CREDENTIALS_BY_PHONE = "credentialsByPhone";
+    static final String LOGIN_MISSES = "loginMisses";
+    static final Duration LOGIN_TOUCH_INTERVAL = Duration.ofMinutes(5);
+    /** Users tracked by {@link #shouldRecordLogin} before expired entries are dropped. */
+    static final int LOGIN_TOUCH_MAX_TRACKED = 100_000;
+
     private final UserRepository userRepository;
+    private final AccountRepository accountRepository;
+    private final EmailDataRepository emailDataRepository;
+    private final PhoneDataRepository phoneDataRepository;
+    private final CacheManager cacheManager;
+    private final CacheInvalidator cacheInvalidator;
+    private final ConcurrentMap<Long, Long> loginTouches = new ConcurrentHashMap<>();
+
+    /**
+     * The {@code users} cache entry; {@link UserService#getUserById} applies due accrual to it on every read.
+     */
+    @Cacheable(value = CacheInvalidator.USERS, key = "#userId", sync = true)
+    @Transactional(readOnly = true)
+    public Optional<CachedUser> findUser(Long userId) {
+        return WorkloadRoutingDataSource.readFromPrimary(() -> userRepository.findViewById(userId)
+                .map(user -> CachedUser.of(user,
+                        accountRepository.findBalanceViewByUserId(userId).orElse(null),
+                        emailDataRepository.findEmailsByUserId(userId),
+                        phoneDataRepository.findPhonesByUserId(userId))));
+    }
+
+    @Cacheable(value = CREDENTIALS_BY_EMAIL, key = "#email", unless="#result == null")
+    @Transactional(readOnly = true)
+    public Optional<LoginCredentials> findByEmail(String email) {
+        return WorkloadRoutingDataSource.readFromPrimary(() -> userRepository.findCredentialsByEmail(email));
+    }
+
+    @Cacheable(value = CREDENTIALS_BY_PHONE, key = "#phone", unless="#result == null")
+    @Transactional(readOnly = true)
+    public Optional<LoginCredentials> findByPhone(String phone) {
+        return WorkloadRoutingDataSource.readFromPrimary(() -> userRepository.findCredentialsByPhone(phone));
+    }
+
+    /**
+     * Whether the login recently matched no user; such entries expire quickly (see {@code loginMisses} TTL).
+     */
+    public boolean isKnownMiss(String login) {
+        Cache cache = cacheManager.getCache(LOGIN_MISSES);
+        return cache != null && cache.get(login) != null;
+    }
+
+    public void recordMiss(String login) {
+        Cache cache = cacheManager.getCache(LOGIN_MISSES);
+        if (cache != null) {
+            cache.put(login, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Whether a login of the user should be passed to {@link #recordLogin}: true at most once per
+     * {@link #LOGIN_TOUCH_INTERVAL} per user on this node, so other logins submit no task and use no connection.
+     */
+    public boolean shouldRecordLogin(Long userId) {
+        long now = System.currentTimeMillis();
+        long threshold = now - LOGIN_TOUCH_INTERVAL.toMillis();
+        Long last = loginTouches.get(userId);
+        if (last != null && last >= threshold) {
+            return false;
+        }
+        boolean claimed = last == null
+                ? loginTouches.putIfAbsent(userId, now) == null
+                : loginTouches.replace(userId, last, now);
+        if (claimed && loginTouches.size() > LOGIN_TOUCH_MAX_TRACKED) {
+            loginTouches.values().removeIf(touchedAt -> touchedAt < threshold);
+        }
+        return claimed;
+    }
 
-    @Cacheable(value = "usersByEmail", key = "#email", unless="#result == null")
-    public Optional<User> findByEmail(String email) {
-        return userRepository.findByEmail(email);
+    /**
+     * Marks the user as recently active for {@link CacheWarmup}. Runs after the login has returned; the conditional
+     * update writes the row at most once per {@link #LOGIN_TOUCH_INTERVAL} across nodes.
+     */
+    @Async("operationExecutor")
+    @Transactional
+    public void recordLogin(Long userId) {
+        Instant now = Instant.now();
+        userRepository.touchLastLogin(userId, now, now.minus(LOGIN_TOUCH_INTERVAL));
     }
 
-    @Cacheable(value = "usersByPhone", key = "#phone", unless="#result == null")
-    public Optional<User> findByPhone(String phone) {
-        return userRepository.findByPhone(phone);
+    /**
+     * Drops the login entries (including recorded misses) of the given emails and phones after the surrounding
+     * transaction commits.
+     */
+    public void evictCredentials(Collection<String> emails, Collection<String> phones) {
+        cacheInvalidator.evict(CREDENTIALS_BY_EMAIL, emails);
+        cacheInvalidator.evict(CREDENTIALS_BY_PHONE, phones);
+        cacheInvalidator.evict(LOGIN_MISSES, emails);
+        cacheInvalidator.evict(LOGIN_MISSES, phones);
     }
-} 
\ No newline at end of file
+}
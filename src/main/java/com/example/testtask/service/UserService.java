@@ -3,13 +3,16 @@ package com.example.testtask.service;
 import com.example.testtask.dto.*;
 import com.example.testtask.entity.*;
 import com.example.testtask.repository.*;
+import com.example.testtask.config.BatchCache;
+import com.example.testtask.config.CacheInvalidator;
+import com.example.testtask.config.WorkloadRoutingDataSource;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -17,15 +20,26 @@ import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
     
+    static final int EXPORT_BATCH_SIZE = Integer.parseInt(UserRepository.EXPORT_FETCH_SIZE);
+    
     private final UserRepository userRepository;
     private final AccountRepository accountRepository;
     private final EmailDataRepository emailDataRepository;
@@ -33,13 +47,18 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final UserLookupService userLookupService;
+    private final AccrualService accrualService;
+    private final OutboxService outboxService;
+    private final BatchCache batchCache;
     
     @Transactional
     public UserResponse createUser(UserCreateRequest request) {
-        log.info("Creating user: name={}, emails={}, phones={}", 
-                request.getName(), 
-                request.getEmails().stream().map(UserCreateRequest.EmailRequest::getEmail).toList(),
-                request.getPhones().stream().map(UserCreateRequest.PhoneRequest::getPhone).toList());
+        if (log.isDebugEnabled()) {
+            log.debug("Creating user: name={}, emails={}, phones={}", 
+                    request.getName(), 
+                    request.getEmails().stream().map(UserCreateRequest.EmailRequest::getEmail).toList(),
+                    request.getPhones().stream().map(UserCreateRequest.PhoneRequest::getPhone).toList());
+        }
         
         for (UserCreateRequest.EmailRequest emailReq : request.getEmails()) {
             if (emailDataRepository.existsByEmail(emailReq.getEmail())) {
@@ -64,8 +83,10 @@ public class UserService {
         
         Account account = new Account();
         account.setUserId(user.getId());
-        account.setBalance(request.getInitialBalance());
-        account.setInitialBalance(request.getInitialBalance());
+        Money initialBalance = Money.of(request.getInitialBalance());
+        account.setBalance(initialBalance);
+        account.setInitialBalance(initialBalance);
+        accrualService.initialise(account);
         accountRepository.save(account);
         
         List<EmailData> emails = new ArrayList<>();
@@ -85,32 +106,29 @@ public class UserService {
             phones.add(phoneData);
         }
         phoneDataRepository.saveAll(phones);
+        userLookupService.evictCredentials(
+                emails.stream().map(EmailData::getEmail).toList(),
+                phones.stream().map(PhoneData::getPhone).toList());
+        
+        UserResponse response = mapToUserResponse(user, account, emails, phones);
+        outboxService.record(OutboxService.USER, user.getId(), OutboxService.USER_CREATED, response);
         
         log.info("User created successfully: ID={}, name={}, initialBalance={}", 
                 user.getId(), user.getName(), request.getInitialBalance());
-        return mapToUserResponse(user, account, emails, phones);
+        return response;
     }
     
-    @Cacheable(value = "users", key = "#userId")
+    /**
+     * The cached entry holds the stored balance; due accrual is applied here, after the lookup, so a lazily accrued
+     * balance is current on every read although no accrual write evicts the entry.
+     */
     public Optional<UserResponse> getUserById(Long userId) {
         log.debug("Fetching user by ID: {}", userId);
-        
-        Optional<User> user = userRepository.findById(userId);
-        if (user.isEmpty()) {
-            log.debug("User not found: ID={}", userId);
-            return Optional.empty();
-        }
-        
-        Optional<Account> account = accountRepository.findByUserId(userId);
-        List<EmailData> emails = emailDataRepository.findByUserId(userId);
-        List<PhoneData> phones = phoneDataRepository.findByUserId(userId);
-        
-        log.debug("User fetched successfully: ID={}", userId);
-        return Optional.of(mapToUserResponse(user.get(), account.orElse(null), emails, phones));
+        return userLookupService.findUser(userId).map(this::toResponse);
     }
     
     @Transactional
-    @CacheEvict(value = {"users", "usersByEmail", "usersByPhone"}, key = "#userId")
+    @CacheEvict(value = "users", key = "#userId")
     public Optional<UserResponse> updateUser(Long userId, UserUpdateRequest request) {
         log.info("Updating user: ID={}, hasNameUpdate={}, hasEmailUpdate={}, hasPhoneUpdate={}", 
                 userId, request.getName() != null, request.getEmails() != null, request.getPhones() != null);
@@ -122,6 +140,9 @@ public class UserService {
         }
         
         User user = userOpt.get();
+        // login entries of removed and added contacts
+        Set<String> evictedEmails = new HashSet<>();
+        Set<String> evictedPhones = new HashSet<>();
         
         if (request.getName() != null && !request.getName().trim().isEmpty()) {
             String oldName = user.getName();
@@ -140,6 +161,7 @@ public class UserService {
             
             List<EmailData> oldEmails = emailDataRepository.findByUserId(userId);
             emailDataRepository.deleteByUserId(userId);
+            oldEmails.forEach(e -> evictedEmails.add(e.getEmail()));
             
             List<EmailData> newEmails = new ArrayList<>();
             for (UserUpdateRequest.EmailUpdateRequest emailReq : request.getEmails()) {
@@ -151,11 +173,14 @@ public class UserService {
                 }
             }
             emailDataRepository.saveAll(newEmails);
+            newEmails.forEach(e -> evictedEmails.add(e.getEmail()));
             
-            log.info("User emails updated: ID={}, oldEmails={}, newEmails={}", 
-                    userId, 
-                    oldEmails.stream().map(EmailData::getEmail).toList(),
-                    newEmails.stream().map(EmailData::getEmail).toList());
+            if (log.isDebugEnabled()) {
+                log.debug("User emails updated: ID={}, oldEmails={}, newEmails={}", 
+                        userId, 
+                        oldEmails.stream().map(EmailData::getEmail).toList(),
+                        newEmails.stream().map(EmailData::getEmail).toList());
+            }
         }
         
         if (request.getPhones() != null && !request.getPhones().isEmpty()) {
@@ -169,6 +194,7 @@ public class UserService {
             
             List<PhoneData> oldPhones = phoneDataRepository.findByUserId(userId);
             phoneDataRepository.deleteByUserId(userId);
+            oldPhones.forEach(p -> evictedPhones.add(p.getPhone()));
             
             List<PhoneData> newPhones = new ArrayList<>();
             for (UserUpdateRequest.PhoneUpdateRequest phoneReq : request.getPhones()) {
@@ -180,89 +206,241 @@ public class UserService {
                 }
             }
             phoneDataRepository.saveAll(newPhones);
+            newPhones.forEach(p -> evictedPhones.add(p.getPhone()));
             
-            log.info("User phones updated: ID={}, oldPhones={}, newPhones={}", 
-                    userId, 
-                    oldPhones.stream().map(PhoneData::getPhone).toList(),
-                    newPhones.stream().map(PhoneData::getPhone).toList());
+            if (log.isDebugEnabled()) {
+                log.debug("User phones updated: ID={}, oldPhones={}, newPhones={}", 
+                        userId, 
+                        oldPhones.stream().map(PhoneData::getPhone).toList(),
+                        newPhones.stream().map(PhoneData::getPhone).toList());
+            }
         }
         
         user = userRepository.save(user);
+        if (!evictedEmails.isEmpty() || !evictedPhones.isEmpty()) {
+            userLookupService.evictCredentials(evictedEmails, evictedPhones);
+        }
         
         Optional<Account> account = accountRepository.findByUserId(userId);
         List<EmailData> emails = emailDataRepository.findByUserId(userId);
         List<PhoneData> phones = phoneDataRepository.findByUserId(userId);
         
+        UserResponse response = mapToUserResponse(user, account.orElse(null), emails, phones);
+        outboxService.record(OutboxService.USER, userId, OutboxService.USER_UPDATED, response);
+        
         log.info("User updated successfully: ID={}", userId);
-        return Optional.of(mapToUserResponse(user, account.orElse(null), emails, phones));
+        return Optional.of(response);
     }
     
+    /**
+     * Runs on the primary: the page content is written to the users cache.
+     */
+    @Transactional(readOnly = true)
     public Page<UserResponse> searchUsers(LocalDate dateOfBirth, String phone, String name, String email, Pageable pageable) {
-        log.info("Searching users: dateOfBirth={}, phone={}, name={}, email={}, page={}, size={}", 
-                 dateOfBirth, phone, name, email, pageable.getPageNumber(), pageable.getPageSize());
+        return WorkloadRoutingDataSource.readFromPrimary(() -> findUsers(dateOfBirth, phone, name, email, pageable));
+    }
+    
+    private Page<UserResponse> findUsers(LocalDate dateOfBirth, String phone, String name, String email, Pageable pageable) {
+        if (log.isDebugEnabled()) {
+            log.debug("Searching users: dateOfBirth={}, phone={}, name={}, email={}, page={}, size={}", 
+                     dateOfBirth, phone, name, email, pageable.getPageNumber(), pageable.getPageSize());
+        }
         
-        Page<User> users;
+        Page<UserView> users;
         
         if (dateOfBirth != null) {
-            users = userRepository.findByDateOfBirthAfter(dateOfBirth, pageable);
+            users = userRepository.findViewsByDateOfBirthAfter(dateOfBirth, pageable);
         } else if (phone != null && !phone.trim().isEmpty()) {
-            Optional<User> userOpt = userRepository.findByPhone(phone.trim());
-            List<User> content = userOpt.map(List::of).orElse(List.of());
+            Optional<UserView> userOpt = userRepository.findViewByPhone(phone.trim());
+            List<UserView> content = userOpt.map(List::of).orElse(List.of());
             users = new PageImpl<>(content, pageable, content.size());
         } else if (name != null && !name.trim().isEmpty()) {
-            users = userRepository.findByNameContainingIgnoreCase(name.trim(), pageable);
+            users = userRepository.findViewsByNameContainingIgnoreCase(name.trim(), pageable);
         } else if (email != null && !email.trim().isEmpty()) {
-            Optional<User> userOpt = userRepository.findByEmail(email.trim());
-            List<User> content = userOpt.map(List::of).orElse(List.of());
+            Optional<UserView> userOpt = userRepository.findViewByEmail(email.trim());
+            List<UserView> content = userOpt.map(List::of).orElse(List.of());
             users = new PageImpl<>(content, pageable, content.size());
         } else {
-            users = userRepository.findAll(pageable);
+            users = userRepository.findAllViews(pageable);
         }
         
-        List<UserResponse> userResponses = users.getContent().stream()
-                .map(user -> {
-                    Optional<Account> account = accountRepository.findByUserId(user.getId());
-                    List<EmailData> emails = emailDataRepository.findByUserId(user.getId());
-                    List<PhoneData> phones = phoneDataRepository.findByUserId(user.getId());
-                    return mapToUserResponse(user, account.orElse(null), emails, phones);
-                })
-                .collect(Collectors.toList());
+        List<UserResponse> userResponses = loadCachedUserResponses(users.getContent());
         
-        log.info("User search completed: found {} users out of {} total", 
+        log.debug("User search completed: found {} users out of {} total", 
                 userResponses.size(), users.getTotalElements());
         return new PageImpl<>(userResponses, pageable, users.getTotalElements());
     }
     
+    /**
+     * Streams users matching the same filters as {@link #searchUsers} in id order, {@link #EXPORT_BATCH_SIZE} at a
+     * time: rows come from a server-side cursor and each batch resolves balances and contacts with one query per
+     * table, so memory use does not grow with the result size. Returns the number of exported users.
+     */
+    @Transactional(readOnly = true)
+    public long exportUsers(LocalDate dateOfBirth, String phone, String name, String email,
+                            Consumer<List<UserResponse>> sink) {
+        long exported = 0;
+        try (Stream<UserView> users = streamUsers(dateOfBirth, phone, name, email)) {
+            List<UserView> batch = new ArrayList<>(EXPORT_BATCH_SIZE);
+            Iterator<UserView> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == EXPORT_BATCH_SIZE || !iterator.hasNext()) {
+                    sink.accept(loadCachedUsers(batch).stream().map(this::toResponse).toList());
+                    exported += batch.size();
+                    batch.clear();
+                }
+            }
+        }
+        log.debug("User export completed: exported {} users", exported);
+        return exported;
+    }
+    
+    private Stream<UserView> streamUsers(LocalDate dateOfBirth, String phone, String name, String email) {
+        if (dateOfBirth != null) {
+            return userRepository.streamViewsByDateOfBirthAfter(dateOfBirth);
+        } else if (phone != null && !phone.trim().isEmpty()) {
+            return userRepository.findViewByPhone(phone.trim()).stream();
+        } else if (name != null && !name.trim().isEmpty()) {
+            return userRepository.streamViewsByNameContainingIgnoreCase(name.trim());
+        } else if (email != null && !email.trim().isEmpty()) {
+            return userRepository.findViewByEmail(email.trim()).stream();
+        }
+        return userRepository.streamAllViews();
+    }
+    
+    /**
+     * Not transactional: the lookups run in their own transactions, and a miss has to reach the transaction-aware
+     * {@code loginMisses} cache immediately, as the failed login ends by throwing.
+     */
     public AuthResponse authenticate(AuthRequest request) {
-        log.info("Authenticating user: login={}", request.getLogin());
+        log.debug("Authenticating user: login={}", request.getLogin());
         
-        Optional<User> userOpt = userLookupService.findByEmail(request.getLogin());
-        if (userOpt.isEmpty()) {
-            userOpt = userLookupService.findByPhone(request.getLogin());
+        String login = request.getLogin();
+        LoginType loginType = LoginType.of(login);
+        Optional<LoginCredentials> credentials = Optional.empty();
+        if (loginType != LoginType.UNKNOWN && !userLookupService.isKnownMiss(login)) {
+            credentials = loginType == LoginType.EMAIL
+                    ? userLookupService.findByEmail(login)
+                    : userLookupService.findByPhone(login);
+            if (credentials.isEmpty()) {
+                userLookupService.recordMiss(login);
+            }
         }
         
-        if (userOpt.isEmpty()) {
-            log.warn("Authentication failed: user not found - login={}", request.getLogin());
+        if (credentials.isEmpty()) {
+            log.warn("Authentication failed: user not found - login={}", login);
             throw new IllegalArgumentException("Invalid credentials");
         }
         
-        if (!passwordEncoder.matches(request.getPassword(), userOpt.get().getPassword())) {
+        if (!passwordEncoder.matches(request.getPassword(), credentials.get().getPasswordHash())) {
             log.warn("Authentication failed: invalid password - login={}", request.getLogin());
             throw new IllegalArgumentException("Invalid credentials");
         }
         
-        String token = jwtService.generateToken(userOpt.get().getId());
-        log.info("User authenticated successfully: userID={}, login={}", userOpt.get().getId(), request.getLogin());
+        String token = jwtService.generateToken(credentials.get().getUserId());
+        try {
+            if (userLookupService.shouldRecordLogin(credentials.get().getUserId())) {
+                userLookupService.recordLogin(credentials.get().getUserId());
+            }
+        } catch (TaskRejectedException e) {
+            log.debug("Login activity not recorded, executor saturated: userID={}", credentials.get().getUserId());
+        }
+        log.debug("User authenticated successfully: userID={}, login={}", credentials.get().getUserId(), request.getLogin());
         
         return new AuthResponse(token);
     }
     
-    private UserResponse mapToUserResponse(User user, Account account, List<EmailData> emails, List<PhoneData> phones) {
+    /**
+     * Writes the given users to the users cache and their emails and phones to the login caches, one pipelined write
+     * per region. Used by {@link CacheWarmup}; returns the number of users cached.
+     */
+    @Transactional(readOnly = true)
+    public int warmUpCaches(List<Long> userIds) {
+        List<CachedUser> users = loadCachedUsers(userRepository.findViewsByIdIn(userIds));
+        Map<Long, LoginCredentials> credentials = userRepository.findCredentialsByIdIn(userIds).stream()
+                .collect(Collectors.toMap(LoginCredentials::getUserId, Function.identity()));
+        
+        Map<Long, CachedUser> usersById = new HashMap<>();
+        Map<String, LoginCredentials> byEmail = new HashMap<>();
+        Map<String, LoginCredentials> byPhone = new HashMap<>();
+        for (CachedUser cached : users) {
+            UserResponse user = cached.getUser();
+            usersById.put(user.getId(), cached);
+            LoginCredentials userCredentials = credentials.get(user.getId());
+            if (userCredentials != null) {
+                user.getEmails().forEach(email -> byEmail.put(email, userCredentials));
+                user.getPhones().forEach(phone -> byPhone.put(phone, userCredentials));
+            }
+        }
+        batchCache.putAll(CacheInvalidator.USERS, usersById);
+        batchCache.putAll(UserLookupService.CREDENTIALS_BY_EMAIL, byEmail);
+        batchCache.putAll(UserLookupService.CREDENTIALS_BY_PHONE, byPhone);
+        return users.size();
+    }
+    
+    /**
+     * Page content through the users cache: one multi-get for the page, and the misses loaded together and cached.
+     */
+    private List<UserResponse> loadCachedUserResponses(List<UserView> users) {
+        Map<Long, UserView> byId = users.stream()
+                .collect(Collectors.toMap(UserView::id, Function.identity(), (first, second) -> first));
+        Map<Long, CachedUser> cached = batchCache.getAll(CacheInvalidator.USERS, byId.keySet(), CachedUser.class,
+                misses -> loadCachedUsers(misses.stream().map(byId::get).toList()).stream()
+                        .collect(Collectors.toMap(user -> user.getUser().getId(), Function.identity())));
+        return users.stream()
+                .map(user -> cached.get(user.id()))
+                .filter(Objects::nonNull)
+                .map(this::toResponse)
+                .collect(Collectors.toList());
+    }
+    
+    private List<CachedUser> loadCachedUsers(List<UserView> users) {
+        List<Long> userIds = users.stream().map(UserView::id).toList();
+        Map<Long, AccountBalanceView> accounts = accountRepository.findBalanceViewsByUserIdIn(userIds).stream()
+                .collect(Collectors.toMap(AccountBalanceView::userId, Function.identity()));
+        Map<Long, List<String>> emails = groupByUser(emailDataRepository.findEmailViewsByUserIdIn(userIds));
+        Map<Long, List<String>> phones = groupByUser(phoneDataRepository.findPhoneViewsByUserIdIn(userIds));
+        
+        List<CachedUser> cached = new ArrayList<>(users.size());
+        for (UserView user : users) {
+            cached.add(CachedUser.of(user, accounts.get(user.id()),
+                    emails.getOrDefault(user.id(), List.of()), phones.getOrDefault(user.id(), List.of())));
+        }
+        return cached;
+    }
+    
+    /**
+     * Response for a cache entry with due accrual applied; a copy, as local caches hand out the stored instance.
+     */
+    UserResponse toResponse(CachedUser cached) {
+        UserResponse user = cached.getUser();
+        UserResponse response = new UserResponse();
+        response.setId(user.getId());
+        response.setName(user.getName());
+        response.setDateOfBirth(user.getDateOfBirth());
+        response.setBalance(user.getBalance());
+        if (accrualService.isLazy() && cached.getInitialBalance() != null) {
+            AccountBalanceView account = new AccountBalanceView(user.getId(), Money.of(user.getBalance()),
+                    Money.of(cached.getInitialBalance()), cached.getLastAccrualAt());
+            response.setBalance(accrualService.currentBalance(account).toBigDecimal());
+        }
+        response.setEmails(user.getEmails());
+        response.setPhones(user.getPhones());
+        return response;
+    }
+    
+    private static Map<Long, List<String>> groupByUser(List<ContactView> contacts) {
+        return contacts.stream().collect(Collectors.groupingBy(ContactView::userId,
+                Collectors.mapping(ContactView::value, Collectors.toList())));
+    }
+    
+    UserResponse mapToUserResponse(User user, Account account, List<EmailData> emails, List<PhoneData> phones) {
         UserResponse response = new UserResponse();
         response.setId(user.getId());
         response.setName(user.getName());
         response.setDateOfBirth(user.getDateOfBirth());
-        response.setBalance(account != null ? account.getBalance() : BigDecimal.ZERO);
+        response.setBalance(account != null ? accrualService.currentBalance(account).toBigDecimal() : BigDecimal.ZERO);
         response.setEmails(emails.stream().map(EmailData::getEmail).collect(Collectors.toList()));
         response.setPhones(phones.stream().map(PhoneData::getPhone).collect(Collectors.toList()));
         return response;
@@ -0,0 +1,87 @@
+package com.example.testtask;
+
+import com.example.testtask.entity.Account;
+import com.example.testtask.entity.Money;
+import com.example.testtask.service.AccrualService;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccrualServiceTest {
+
+    private static final Instant LAST_ACCRUAL = Instant.parse("2024-01-01T00:00:00Z");
+
+    @Test
+    void step_RoundsHalfUpAndCapsAtMaxBalance() {
+        Money max = AccrualService.maxBalance(Money.of("33.33"));
+
+        assertEquals(Money.of("68.99"), max);
+        assertEquals(Money.of("36.66"), AccrualService.step(Money.of("33.33"), max));
+        assertEquals(max, AccrualService.step(Money.of("65.00"), max));
+        assertEquals(max, AccrualService.step(max, max));
+    }
+
+    @Test
+    void currentBalance_LazyMatchesPeriodicSteps() {
+        // Given
+        Account account = account(Money.of("1000.00"), Money.of("1234.57"));
+        Money periodic = account.getBalance();
+        Money max = AccrualService.maxBalance(account.getInitialBalance());
+
+        for (int steps = 0; steps <= 12; steps++) {
+            // When
+            AccrualService lazy = lazyAt(LAST_ACCRUAL.plus(AccrualService.INTERVAL.multipliedBy(steps)).plusSeconds(5));
+
+            // Then
+            assertEquals(periodic, lazy.currentBalance(account), "after " + steps + " steps");
+            periodic = AccrualService.step(periodic, max);
+        }
+    }
+
+    @Test
+    void materialise_AdvancesByWholeIntervals() {
+        // Given
+        Account account = account(Money.of("100.00"), Money.of("100.00"));
+        AccrualService lazy = lazyAt(LAST_ACCRUAL.plusSeconds(75));
+
+        // When
+        lazy.materialise(account);
+
+        // Then
+        assertEquals(Money.of("121.00"), account.getBalance());
+        assertEquals(LAST_ACCRUAL.plusSeconds(60), account.getLastAccrualAt());
+    }
+
+    @Test
+    void currentBalance_PeriodicModeReturnsStoredBalance() {
+        Account account = account(Money.of("100.00"), Money.of("100.00"));
+        AccrualService periodic = new AccrualService(AccrualService.Mode.PERIODIC,
+                Clock.fixed(LAST_ACCRUAL.plusSeconds(3600), ZoneOffset.UTC));
+
+        assertEquals(Money.of("100.00"), periodic.currentBalance(account));
+    }
+
+    @Test
+    void accrue_StopsWhenBalanceNoLongerChanges() {
+        assertEquals(Money.of("0.04"),
+                AccrualService.accrue(Money.of("0.04"), Money.of("100.00"), Long.MAX_VALUE));
+    }
+
+    private static AccrualService lazyAt(Instant now) {
+        return new AccrualService(AccrualService.Mode.LAZY, Clock.fixed(now, ZoneOffset.UTC));
+    }
+
+    private static Account account(Money initialBalance, Money balance) {
+        Account account = new Account();
+        account.setId(1L);
+        account.setUserId(1L);
+        account.setInitialBalance(initialBalance);
+        account.setBalance(balance);
+        account.setLastAccrualAt(LAST_ACCRUAL);
+        return account;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.testtask;
+
+import com.example.testtask.entity.Account;
+import com.example.testtask.repository.AccountRepository;
+import com.example.testtask.service.AccountService;
+import com.example.testtask.service.AccrualService;
+import com.example.testtask.service.BalanceMetrics;
+import com.example.testtask.service.BalanceOperationsScheduler;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BalanceOperationsSchedulerTest {
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountService accountService;
+
+    @Mock
+    private AccrualService accrualService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ThreadPoolTaskExecutor executor;
+    private BalanceOperationsScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setQueueCapacity(1);
+        executor.initialize();
+        scheduler = new BalanceOperationsScheduler(accountRepository, accountService,
+                new BalanceMetrics(meterRegistry), accrualService, executor);
+        ReflectionTestUtils.setField(scheduler, "scheduledTasksEnabled", true);
+        ReflectionTestUtils.setField(scheduler, "batchSize", 2);
+        ReflectionTestUtils.setField(scheduler, "configuredPartitions", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void increaseBalances_SplitsIdRangeIntoPartitions() {
+        // Given
+        when(accountRepository.findMinAccrualEligibleId()).thenReturn(1L);
+        when(accountRepository.findMaxAccrualEligibleId()).thenReturn(10L);
+        when(accountService.increaseBalances(0, 5, 2)).thenReturn(2L);
+        when(accountService.increaseBalances(2, 5, 2)).thenReturn(-1L);
+        when(accountService.increaseBalances(5, 10, 2)).thenReturn(-1L);
+
+        // When
+        scheduler.increaseBalances();
+
+        // Then
+        verify(accountService).increaseBalances(0, 5, 2);
+        verify(accountService).increaseBalances(2, 5, 2);
+        verify(accountService).increaseBalances(5, 10, 2);
+    }
+
+    @Test
+    void increaseBalances_ConflictingBatchRetriedPerAccountAndRangeContinues() {
+        // Given
+        ReflectionTestUtils.setField(scheduler, "configuredPartitions", 1);
+        when(accountRepository.findMinAccrualEligibleId()).thenReturn(1L);
+        when(accountRepository.findMaxAccrualEligibleId()).thenReturn(10L);
+        when(accountService.increaseBalances(0, 10, 2))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Account.class, 2L));
+        when(accountRepository.findAccrualEligibleIds(0, 10, 2)).thenReturn(List.of(1L, 2L));
+        doNothing().when(accountService).increaseBalance(1L);
+        doThrow(new ObjectOptimisticLockingFailureException(Account.class, 2L)).when(accountService).increaseBalance(2L);
+        when(accountService.increaseBalances(2, 10, 2)).thenReturn(-1L);
+
+        // When
+        scheduler.increaseBalances();
+
+        // Then
+        verify(accountService).increaseBalance(1L);
+        verify(accountService).increaseBalance(2L);
+        verify(accountService).increaseBalances(2, 10, 2);
+    }
+
+    @Test
+    void increaseBalances_NoEligibleAccounts() {
+        when(accountRepository.findMinAccrualEligibleId()).thenReturn(0L);
+        when(accountRepository.findMaxAccrualEligibleId()).thenReturn(0L);
+
+        scheduler.increaseBalances();
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void increaseBalances_SkipsWhilePreviousTickRunning() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(accountRepository.findMinAccrualEligibleId()).thenReturn(1L);
+        when(accountRepository.findMaxAccrualEligibleId()).thenReturn(1L);
+        when(accountService.increaseBalances(0, 1, 2)).thenAnswer(inv -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return -1L;
+        });
+        Thread firstTick = new Thread(() -> scheduler.increaseBalances());
+        firstTick.start();
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // When
+        scheduler.increaseBalances();
+        release.countDown();
+        firstTick.join(5000);
+
+        // Then
+        verify(accountRepository, times(1)).findMaxAccrualEligibleId();
+        assertEquals(1.0, meterRegistry.get("accrual.ticks.skipped").counter().count());
+    }
+
+    @Test
+    void increaseBalances_LazyModeDoesNothing() {
+        when(accrualService.isLazy()).thenReturn(true);
+
+        scheduler.increaseBalances();
+
+        verifyNoInteractions(accountRepository, accountService);
+    }
+
+    @Test
+    void increaseBalances_DisabledDoesNothing() {
+        ReflectionTestUtils.setField(scheduler, "scheduledTasksEnabled", false);
+
+        scheduler.increaseBalances();
+
+        verifyNoInteractions(accountRepository, accountService, accrualService);
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.testtask;
+
+import com.example.testtask.config.BatchCache;
+import com.example.testtask.config.MeteredCacheManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext.SerializationPair;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.Mockito.*;
+
+class BatchCacheTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_LoadsOnlyMissesInOneCallAndKeepsKeyOrder() {
+        // Given
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        cacheManager.getCache("users").put(2L, "cached-2");
+        BatchCache batchCache = new BatchCache(cacheManager, mock(ObjectProvider.class), new SimpleMeterRegistry());
+        List<Set<Long>> loaderCalls = new ArrayList<>();
+
+        // When
+        Map<Long, String> values = batchCache.getAll("users", List.of(3L, 2L, 1L), String.class, misses -> {
+            loaderCalls.add(misses);
+            return misses.stream().collect(Collectors.toMap(id -> id, id -> "loaded-" + id));
+        });
+
+        // Then
+        assertEquals(List.of(3L, 2L, 1L), List.copyOf(values.keySet()));
+        assertEquals("cached-2", values.get(2L));
+        assertEquals(List.of(Set.of(3L, 1L)), loaderCalls);
+        assertEquals("loaded-1", cacheManager.getCache("users").get(1L, String.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void getAll_KeysMissingFromSourceAreLeftOut() {
+        // Given
+        ConcurrentMapCacheManager cacheManager = new ConcurrentMapCacheManager("users");
+        BatchCache batchCache = new BatchCache(cacheManager, mock(ObjectProvider.class), new SimpleMeterRegistry());
+
+        // When
+        Map<Long, String> values = batchCache.getAll("users", List.of(1L, 2L), String.class,
+                misses -> Map.of(1L, "loaded-1"));
+
+        // Then
+        assertEquals(Map.of(1L, "loaded-1"), values);
+        assertNull(cacheManager.getCache("users").get(2L));
+    }
+
+    @Test
+    void getAll_OnRedisReadsWithOneMgetAndWritesMissesInOnePipeline() {
+        // Given
+        RedisFixture redis = new RedisFixture();
+        when(redis.strings.mGet(any(byte[][].class))).thenAnswer(inv -> Arrays.stream(inv.getArguments())
+                .map(key -> Arrays.equals((byte[]) key, bytes("users::2")) ? bytes("cached-2") : null)
+                .toList());
+        List<Set<Long>> loaderCalls = new ArrayList<>();
+
+        // When
+        Map<Long, String> values = redis.batchCache.getAll("users", List.of(3L, 2L, 1L), String.class, misses -> {
+            loaderCalls.add(misses);
+            return misses.stream().collect(Collectors.toMap(id -> id, id -> "loaded-" + id));
+        });
+
+        // Then
+        assertEquals(Map.of(3L, "loaded-3", 2L, "cached-2", 1L, "loaded-1"), values);
+        assertEquals(List.of(Set.of(3L, 1L)), loaderCalls);
+        verify(redis.strings).mGet(any(byte[][].class));
+        verify(redis.template, times(1)).executePipelined(any(RedisCallback.class));
+        verify(redis.strings).set(aryEq(bytes("users::3")), aryEq(bytes("loaded-3")), any(), any());
+        verify(redis.strings).set(aryEq(bytes("users::1")), aryEq(bytes("loaded-1")), any(), any());
+        verifyNoInteractions(redis.writer);
+    }
+
+    @Test
+    void putAll_OnRedisWritesAllEntriesInOnePipeline() {
+        // Given
+        RedisFixture redis = new RedisFixture();
+
+        // When
+        redis.batchCache.putAll("users", Map.of(1L, "warm-1", 2L, "warm-2"));
+
+        // Then
+        verify(redis.template, times(1)).executePipelined(any(RedisCallback.class));
+        verify(redis.template, never()).execute(any(RedisCallback.class));
+        verify(redis.strings).set(aryEq(bytes("users::1")), aryEq(bytes("warm-1")), any(), any());
+        verify(redis.strings).set(aryEq(bytes("users::2")), aryEq(bytes("warm-2")), any(), any());
+        verifyNoInteractions(redis.writer);
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * A transaction-aware Redis cache manager wrapped like in {@code CacheConfig}, over a mocked connection.
+     */
+    static class RedisFixture {
+
+        final RedisCacheWriter writer = mock(RedisCacheWriter.class);
+        final RedisConnection connection = mock(RedisConnection.class);
+        final RedisStringCommands strings = mock(RedisStringCommands.class);
+        final StringRedisTemplate template = mock(StringRedisTemplate.class);
+        final BatchCache batchCache;
+
+        @SuppressWarnings("unchecked")
+        RedisFixture() {
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(writer)
+                    .cacheDefaults(RedisCacheConfiguration.defaultCacheConfig()
+                            .serializeValuesWith(SerializationPair.fromSerializer(RedisSerializer.string())))
+                    .initialCacheNames(Set.of("users"))
+                    .transactionAware()
+                    .build();
+            redisCacheManager.afterPropertiesSet();
+            SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+            when(connection.stringCommands()).thenReturn(strings);
+            when(template.execute(any(RedisCallback.class)))
+                    .thenAnswer(inv -> inv.<RedisCallback<?>>getArgument(0).doInRedis(connection));
+            when(template.executePipelined(any(RedisCallback.class))).thenAnswer(inv -> {
+                inv.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+                return List.of();
+            });
+            ObjectProvider<StringRedisTemplate> templateProvider = mock(ObjectProvider.class);
+            when(templateProvider.getIfAvailable()).thenReturn(template);
+
+            batchCache = new BatchCache(new MeteredCacheManager(redisCacheManager, meterRegistry),
+                    templateProvider, meterRegistry);
+        }
+    }
+}
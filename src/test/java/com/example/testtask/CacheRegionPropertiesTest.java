@@ -0,0 +1,57 @@
+package com.example.testtask;
+
+import com.example.testtask.config.CacheRegionProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.MapConfigurationPropertySource;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheRegionPropertiesTest {
+
+    @Test
+    void resolve_RegionSettingsOverrideDefaults() {
+        // Given
+        CacheRegionProperties properties = bind(Map.of(
+                "app.cache.defaults.ttl", "5m",
+                "app.cache.defaults.key-prefix", "tt:",
+                "app.cache.regions.credentialsByEmail.ttl", "15m",
+                "app.cache.regions.users.max-entries", "1000",
+                "app.cache.regions.users.cache-null-values", "true"));
+
+        // When
+        CacheRegionProperties.Region credentials = properties.resolve("credentialsByEmail");
+        CacheRegionProperties.Region users = properties.resolve("users");
+
+        // Then
+        assertEquals(Duration.ofMinutes(15), credentials.getTtl());
+        assertNull(credentials.getMaxEntries());
+        assertEquals("tt:", credentials.getKeyPrefix());
+        assertFalse(credentials.getCacheNullValues());
+        assertEquals(Duration.ofMinutes(5), users.getTtl());
+        assertEquals(1000, users.getMaxEntries());
+        assertTrue(users.getCacheNullValues());
+    }
+
+    @Test
+    void resolve_UnlistedRegionUsesDefaults() {
+        // Given
+        CacheRegionProperties properties = bind(Map.of("app.cache.regions.users.ttl", "10m"));
+
+        // When
+        CacheRegionProperties.Region accounts = properties.resolve("accounts");
+
+        // Then
+        assertEquals(Duration.ofMinutes(5), accounts.getTtl());
+        assertNull(accounts.getMaxEntries());
+        assertNull(accounts.getKeyPrefix());
+    }
+
+    private static CacheRegionProperties bind(Map<String, String> properties) {
+        return new Binder(new MapConfigurationPropertySource(properties))
+                .bindOrCreate("app.cache", CacheRegionProperties.class);
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.testtask;
+
+import com.example.testtask.config.CoalescingCache;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescingCacheTest {
+
+    @Test
+    void get_ConcurrentMissesShareOneLoad() throws Exception {
+        // Given
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("users", false), Duration.ofMinutes(10),
+                1.0, Runnable::run);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+
+        // When
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(callers.submit(() -> cache.get(1L, () -> {
+                loads.incrementAndGet();
+                release.await();
+                return "loaded";
+            })));
+        }
+        Thread.sleep(200);
+        release.countDown();
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("loaded", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        callers.shutdown();
+    }
+
+    @Test
+    void get_HitNearExpiryRefreshesInBackground() {
+        // Given: a zero TTL puts every entry at its expiry
+        ConcurrentMapCache target = new ConcurrentMapCache("users", false);
+        CoalescingCache cache = new CoalescingCache(target, Duration.ZERO, 1.0, Runnable::run);
+        cache.get(1L, () -> "first");
+
+        // When
+        String served = cache.get(1L, () -> "refreshed");
+
+        // Then
+        assertEquals("first", served, "The caller is served the cached value");
+        assertEquals("refreshed", cache.get(1L, String.class), "The entry was reloaded");
+    }
+
+    @Test
+    void get_NullIsNotCached() {
+        // Given
+        CoalescingCache cache = new CoalescingCache(new ConcurrentMapCache("users", false), Duration.ofMinutes(10),
+                1.0, Runnable::run);
+
+        // When
+        Object loaded = cache.get(1L, () -> null);
+
+        // Then
+        assertNull(loaded);
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void get_RefreshRunningAcrossEvictionDoesNotStoreItsValue() {
+        // Given: a refresh is queued for an entry at its expiry
+        ConcurrentMapCache target = new ConcurrentMapCache("users", false);
+        List<Runnable> refreshes = new ArrayList<>();
+        CoalescingCache cache = new CoalescingCache(target, Duration.ZERO, 1.0, refreshes::add);
+        cache.get(1L, () -> "first");
+        cache.get(1L, () -> "read before the write committed");
+        assertEquals(1, refreshes.size());
+
+        // When: the write's after-commit eviction happens before the refresh stores its value
+        cache.invalidated(1L);
+        target.evict(1L);
+        refreshes.get(0).run();
+
+        // Then
+        assertNull(cache.get(1L), "The stale value is not kept for the TTL");
+        assertEquals("current", cache.get(1L, () -> "current"));
+    }
+
+    @Test
+    void get_LoadRunningAcrossEvictionReturnsButDoesNotStoreItsValue() {
+        // Given
+        ConcurrentMapCache target = new ConcurrentMapCache("users", false);
+        CoalescingCache cache = new CoalescingCache(target, Duration.ofMinutes(10), 1.0, Runnable::run);
+
+        // When: a write commits and evicts while the miss is loading
+        Object loaded = cache.get(1L, () -> {
+            cache.evict(1L);
+            return "read before the write committed";
+        });
+
+        // Then
+        assertEquals("read before the write committed", loaded);
+        assertNull(cache.get(1L));
+        assertEquals("current", cache.get(1L, () -> "current"), "Later loads are stored");
+        assertEquals("current", cache.get(1L, String.class));
+    }
+}
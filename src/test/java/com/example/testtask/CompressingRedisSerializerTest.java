@@ -0,0 +1,77 @@
+package com.example.testtask;
+
+import com.example.testtask.config.CompressingRedisSerializer;
+import com.example.testtask.dto.UserResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompressingRedisSerializerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RedisSerializer<Object> json = new GenericJackson2JsonRedisSerializer();
+    private final CompressingRedisSerializer serializer = new CompressingRedisSerializer(json, 256, 3, meterRegistry);
+
+    @Test
+    void serialize_LargeValueIsCompressedAndReadBack() {
+        // Given
+        UserResponse user = user(50);
+
+        // When
+        byte[] stored = serializer.serialize(user);
+
+        // Then
+        assertEquals(0, stored[0], "Compressed values start with the marker byte");
+        assertTrue(stored.length < json.serialize(user).length);
+        assertEquals(user, serializer.deserialize(stored));
+        assertTrue(meterRegistry.get("cache.compression.ratio").summary().mean() > 1.0);
+    }
+
+    @Test
+    void serialize_SmallValueIsStoredPlain() {
+        // Given
+        UserResponse user = user(1);
+
+        // When
+        byte[] stored = serializer.serialize(user);
+
+        // Then
+        assertArrayEquals(json.serialize(user), stored);
+        assertEquals(user, serializer.deserialize(stored));
+    }
+
+    @Test
+    void deserialize_ReadsEntriesWrittenWithoutCompression() {
+        // Given
+        byte[] plain = json.serialize(user(50));
+
+        // When
+        Object value = serializer.deserialize(plain);
+
+        // Then
+        assertEquals(user(50), value);
+    }
+
+    private static UserResponse user(int contacts) {
+        List<String> emails = new ArrayList<>();
+        List<String> phones = new ArrayList<>();
+        for (int i = 0; i < contacts; i++) {
+            emails.add("alice" + i + "@example.com");
+            phones.add(String.valueOf(79200000000L + i));
+        }
+        UserResponse user = new UserResponse();
+        user.setId(101L);
+        user.setName("Alice Johnson");
+        user.setBalance(new BigDecimal("1000.00"));
+        user.setEmails(emails);
+        user.setPhones(phones);
+        return user;
+    }
+}
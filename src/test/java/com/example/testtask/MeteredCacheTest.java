@@ -0,0 +1,54 @@
+package com.example.testtask;
+
+import com.example.testtask.config.MeteredCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MeteredCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private MeteredCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new MeteredCache(new ConcurrentMapCache("users", false), meterRegistry);
+    }
+
+    @Test
+    void get_RecordsHitsAndMissesPerRegion() {
+        // Given
+        cache.put(1L, "cached");
+
+        // When
+        cache.get(1L);
+        cache.get(1L);
+        cache.get(2L);
+
+        // Then
+        assertEquals(2, lookupCount("hit"));
+        assertEquals(1, lookupCount("miss"));
+        assertEquals(1, meterRegistry.get("cache.write").tag("cache", "users").tag("operation", "put").timer().count());
+    }
+
+    @Test
+    void getWithLoader_CountsMissOnlyWhenLoaderRuns() {
+        // When
+        String loaded = cache.get(1L, () -> "loaded");
+        String cached = cache.get(1L, () -> "reloaded");
+
+        // Then
+        assertEquals("loaded", loaded);
+        assertEquals("loaded", cached);
+        assertEquals(1, lookupCount("hit"));
+        assertEquals(1, lookupCount("miss"));
+    }
+
+    private long lookupCount(String result) {
+        return meterRegistry.get("cache.lookup").tag("cache", "users").tag("result", result).timer().count();
+    }
+}
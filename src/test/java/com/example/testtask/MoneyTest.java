@@ -0,0 +1,107 @@
+package com.example.testtask;
+
+import com.example.testtask.entity.Account;
+import com.example.testtask.entity.Money;
+import com.example.testtask.entity.MoneyConverter;
+import com.example.testtask.service.AccrualService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MoneyTest {
+
+    @Test
+    void multiply_RoundsHalfUpAwayFromZero() {
+        assertEquals(Money.of("0.01"), Money.of("0.05").multiply(10, 100));
+        assertEquals(Money.of("0.00"), Money.of("0.04").multiply(10, 100));
+        assertEquals(Money.of("-0.01"), Money.of("-0.05").multiply(10, 100));
+        assertEquals(Money.of("68.99"), Money.of("33.33").multiply(207, 100));
+    }
+
+    @Test
+    void step_MatchesBigDecimalArithmetic() {
+        // Given
+        Random random = new Random(42);
+        BigDecimal rate = new BigDecimal("0.10");
+        BigDecimal multiplier = new BigDecimal("2.07");
+
+        for (int i = 0; i < 10_000; i++) {
+            BigDecimal initial = BigDecimal.valueOf(random.nextLong(1, 100_000_000_000L), 2);
+            BigDecimal balance = BigDecimal.valueOf(random.nextLong(0, initial.unscaledValue().longValue() * 3), 2);
+            BigDecimal max = initial.multiply(multiplier).setScale(2, RoundingMode.HALF_UP);
+            BigDecimal increased = balance.add(balance.multiply(rate).setScale(2, RoundingMode.HALF_UP));
+            BigDecimal expected = balance.compareTo(max) >= 0 ? balance : increased.min(max);
+
+            // When
+            Money actual = AccrualService.step(Money.of(balance), AccrualService.maxBalance(Money.of(initial)));
+
+            // Then
+            assertEquals(expected, actual.toBigDecimal(), "balance " + balance + ", initial " + initial);
+        }
+    }
+
+    @Test
+    void arithmetic_ThrowsOnOverflow() {
+        Money max = Money.ofCents(Long.MAX_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> Money.ofCents(Long.MIN_VALUE).minus(Money.ofCents(1)));
+        assertThrows(ArithmeticException.class, () -> max.multiply(207, 100));
+    }
+
+    @Test
+    void maxBalance_AtLargestAcceptedInitialBalance() {
+        // Given: the largest initial balance UserCreateRequest accepts (@Digits(integer = 16, fraction = 2))
+        BigDecimal initial = new BigDecimal("9999999999999999.99");
+        BigDecimal max = initial.multiply(new BigDecimal("2.07")).setScale(2, RoundingMode.HALF_UP);
+        BigDecimal balance = new BigDecimal("9999999999999999.99");
+        BigDecimal increased = balance.add(balance.multiply(new BigDecimal("0.10")).setScale(2, RoundingMode.HALF_UP));
+
+        // When
+        Money actualMax = AccrualService.maxBalance(Money.of(initial));
+
+        // Then
+        assertEquals(max, actualMax.toBigDecimal());
+        assertEquals(increased, AccrualService.step(Money.of(balance), actualMax).toBigDecimal());
+        assertEquals(actualMax, AccrualService.accrue(Money.of(initial), Money.of(initial), 100));
+    }
+
+    @Test
+    void nonNegative_RejectsNegativeAccountBalance() {
+        try (ValidatorFactory factory = Validation.buildDefaultValidatorFactory()) {
+            Validator validator = factory.getValidator();
+            Account account = new Account();
+            account.setUserId(1L);
+
+            account.setBalance(Money.of("-0.01"));
+            assertEquals(1, validator.validate(account).size());
+
+            account.setBalance(Money.ZERO);
+            assertTrue(validator.validate(account).isEmpty());
+        }
+    }
+
+    @Test
+    void of_RejectsFractionsOfCentsAndOutOfRangeAmounts() {
+        assertEquals(Money.ofCents(1000), Money.of(new BigDecimal("10.0000")));
+        assertThrows(ArithmeticException.class, () -> Money.of("10.001"));
+        assertThrows(ArithmeticException.class, () -> Money.of("99999999999999999.99"));
+    }
+
+    @Test
+    void converter_RoundTripsColumnValues() {
+        MoneyConverter converter = new MoneyConverter();
+
+        assertEquals(new BigDecimal("1234.50"), converter.convertToDatabaseColumn(Money.of("1234.5")));
+        assertEquals(Money.of("1234.50"), converter.convertToEntityAttribute(new BigDecimal("1234.50")));
+        assertNull(converter.convertToDatabaseColumn(null));
+        assertNull(converter.convertToEntityAttribute(null));
+    }
+}
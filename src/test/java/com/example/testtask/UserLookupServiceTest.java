@@ -0,0 +1,18 @@
+package com.example.testtask;
+
+import com.example.testtask.service.UserLookupService;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserLookupServiceTest {
+
+    private final UserLookupService userLookupService = new UserLookupService(null, null, null, null, null, null);
+
+    @Test
+    void shouldRecordLogin_OncePerIntervalPerUser() {
+        assertTrue(userLookupService.shouldRecordLogin(1L));
+        assertFalse(userLookupService.shouldRecordLogin(1L), "Repeated logins within the interval submit nothing");
+        assertTrue(userLookupService.shouldRecordLogin(2L), "Other users are tracked separately");
+    }
+}
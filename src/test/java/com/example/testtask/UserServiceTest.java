@@ -1,15 +1,26 @@
 package com.example.testtask;
 
+import com.example.testtask.dto.AccountBalanceView;
+import com.example.testtask.dto.AuthRequest;
+import com.example.testtask.dto.AuthResponse;
+import com.example.testtask.dto.CachedUser;
+import com.example.testtask.dto.LoginCredentials;
 import com.example.testtask.dto.UserCreateRequest;
 import com.example.testtask.dto.UserResponse;
+import com.example.testtask.dto.UserView;
 import com.example.testtask.entity.User;
 import com.example.testtask.entity.Account;
 import com.example.testtask.entity.EmailData;
 import com.example.testtask.entity.PhoneData;
+import com.example.testtask.entity.Money;
 import com.example.testtask.repository.UserRepository;
 import com.example.testtask.repository.AccountRepository;
 import com.example.testtask.repository.EmailDataRepository;
 import com.example.testtask.repository.PhoneDataRepository;
+import com.example.testtask.service.AccrualService;
+import com.example.testtask.service.JwtService;
+import com.example.testtask.service.OutboxService;
+import com.example.testtask.service.UserLookupService;
 import com.example.testtask.service.UserService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -20,6 +31,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 import java.math.BigDecimal;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
@@ -47,6 +59,18 @@ class UserServiceTest {
     @Mock
     private PasswordEncoder passwordEncoder;
 
+    @Mock
+    private AccrualService accrualService;
+
+    @Mock
+    private UserLookupService userLookupService;
+
+    @Mock
+    private JwtService jwtService;
+
+    @Mock
+    private OutboxService outboxService;
+
     @InjectMocks
     private UserService userService;
 
@@ -79,8 +103,8 @@ class UserServiceTest {
         account = new Account();
         account.setId(1L);
         account.setUserId(1L);
-        account.setBalance(BigDecimal.valueOf(1000));
-        account.setInitialBalance(BigDecimal.valueOf(1000));
+        account.setBalance(Money.of("1000.00"));
+        account.setInitialBalance(Money.of("1000.00"));
     }
 
     @Test
@@ -93,6 +117,7 @@ class UserServiceTest {
         when(accountRepository.save(any(Account.class))).thenReturn(account);
         when(emailDataRepository.saveAll(any())).thenReturn(List.of(new EmailData()));
         when(phoneDataRepository.saveAll(any())).thenReturn(List.of(new PhoneData()));
+        when(accrualService.currentBalance(any(Account.class))).thenAnswer(inv -> inv.getArgument(0, Account.class).getBalance());
 
         // When
         UserResponse response = userService.createUser(createRequest);
@@ -100,12 +125,14 @@ class UserServiceTest {
         // Then
         assertNotNull(response);
         assertEquals("John Doe", response.getName());
-        assertEquals(BigDecimal.valueOf(1000), response.getBalance());
+        assertEquals(new BigDecimal("1000.00"), response.getBalance());
         
         verify(userRepository).save(any(User.class));
         verify(accountRepository).save(any(Account.class));
         verify(emailDataRepository).saveAll(any());
         verify(phoneDataRepository).saveAll(any());
+        verify(accrualService).initialise(any(Account.class));
+        verify(outboxService).record(OutboxService.USER, 1L, OutboxService.USER_CREATED, response);
     }
 
     @Test
@@ -126,10 +153,10 @@ class UserServiceTest {
     @Test
     void getUserById_Success() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        when(accountRepository.findByUserId(1L)).thenReturn(Optional.of(account));
-        when(emailDataRepository.findByUserId(1L)).thenReturn(List.of(new EmailData()));
-        when(phoneDataRepository.findByUserId(1L)).thenReturn(List.of(new PhoneData()));
+        AccountBalanceView balance = new AccountBalanceView(1L, account.getBalance(), account.getInitialBalance(), null);
+        CachedUser cached = CachedUser.of(new UserView(1L, "John Doe", LocalDate.of(1990, 1, 1)), balance,
+                List.of("john@example.com"), List.of("79201234567"));
+        when(userLookupService.findUser(1L)).thenReturn(Optional.of(cached));
 
         // When
         Optional<UserResponse> response = userService.getUserById(1L);
@@ -137,13 +164,36 @@ class UserServiceTest {
         // Then
         assertTrue(response.isPresent());
         assertEquals("John Doe", response.get().getName());
-        assertEquals(BigDecimal.valueOf(1000), response.get().getBalance());
+        assertEquals(new BigDecimal("1000.00"), response.get().getBalance());
+        assertEquals(List.of("john@example.com"), response.get().getEmails());
+        verify(userRepository, never()).findById(any());
+    }
+
+    @Test
+    void getUserById_LazyMode_AppliesAccrualToCachedEntry() {
+        // Given: an entry cached before accrual became due
+        Instant lastAccrualAt = Instant.parse("2024-01-01T00:00:00Z");
+        AccountBalanceView stored = new AccountBalanceView(1L, Money.of("1000.00"), Money.of("1000.00"), lastAccrualAt);
+        CachedUser cached = CachedUser.of(new UserView(1L, "John Doe", LocalDate.of(1990, 1, 1)), stored,
+                List.of("john@example.com"), List.of("79201234567"));
+        when(userLookupService.findUser(1L)).thenReturn(Optional.of(cached));
+        when(accrualService.isLazy()).thenReturn(true);
+        when(accrualService.currentBalance(stored)).thenReturn(Money.of("1100.00"), Money.of("1210.00"));
+
+        // When
+        BigDecimal first = userService.getUserById(1L).orElseThrow().getBalance();
+        BigDecimal second = userService.getUserById(1L).orElseThrow().getBalance();
+
+        // Then
+        assertEquals(new BigDecimal("1100.00"), first);
+        assertEquals(new BigDecimal("1210.00"), second, "Accrual is applied per read, not frozen in the cache");
+        assertEquals(new BigDecimal("1000.00"), cached.getUser().getBalance(), "The cached entry is not modified");
     }
 
     @Test
     void getUserById_UserNotFound_ReturnsEmpty() {
         // Given
-        when(userRepository.findById(1L)).thenReturn(Optional.empty());
+        when(userLookupService.findUser(1L)).thenReturn(Optional.empty());
 
         // When
         Optional<UserResponse> response = userService.getUserById(1L);
@@ -152,5 +202,83 @@ class UserServiceTest {
         assertFalse(response.isPresent());
     }
 
+    @Test
+    void authenticate_PhoneLogin_SkipsEmailLookup() {
+        // Given
+        AuthRequest request = new AuthRequest();
+        request.setLogin("79201234567");
+        request.setPassword("password123");
+        when(userLookupService.findByPhone("79201234567"))
+                .thenReturn(Optional.of(new LoginCredentials(1L, "encodedPassword", 0L)));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(jwtService.generateToken(1L)).thenReturn("token");
+        when(userLookupService.shouldRecordLogin(1L)).thenReturn(true);
+
+        // When
+        AuthResponse response = userService.authenticate(request);
+
+        // Then
+        assertEquals("token", response.getToken());
+        verify(userLookupService, never()).findByEmail(anyString());
+        verify(userLookupService).recordLogin(1L);
+    }
 
-} 
\ No newline at end of file
+    @Test
+    void authenticate_RecentlyRecordedLogin_SubmitsNoTask() {
+        // Given
+        AuthRequest request = new AuthRequest();
+        request.setLogin("79201234567");
+        request.setPassword("password123");
+        when(userLookupService.findByPhone("79201234567"))
+                .thenReturn(Optional.of(new LoginCredentials(1L, "encodedPassword", 0L)));
+        when(passwordEncoder.matches("password123", "encodedPassword")).thenReturn(true);
+        when(jwtService.generateToken(1L)).thenReturn("token");
+        when(userLookupService.shouldRecordLogin(1L)).thenReturn(false);
+
+        // When
+        userService.authenticate(request);
+
+        // Then
+        verify(userLookupService, never()).recordLogin(any());
+    }
+
+    @Test
+    void authenticate_KnownMiss_NoLookup() {
+        // Given
+        AuthRequest request = new AuthRequest();
+        request.setLogin("nobody@example.com");
+        request.setPassword("password123");
+        when(userLookupService.isKnownMiss("nobody@example.com")).thenReturn(true);
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> userService.authenticate(request));
+        verify(userLookupService, never()).findByEmail(anyString());
+        verify(userLookupService, never()).findByPhone(anyString());
+    }
+
+    @Test
+    void authenticate_UnknownUser_RecordsMiss() {
+        // Given
+        AuthRequest request = new AuthRequest();
+        request.setLogin("nobody@example.com");
+        request.setPassword("password123");
+        when(userLookupService.findByEmail("nobody@example.com")).thenReturn(Optional.empty());
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> userService.authenticate(request));
+        verify(userLookupService).recordMiss("nobody@example.com");
+        verify(userLookupService, never()).findByPhone(anyString());
+    }
+
+    @Test
+    void authenticate_UnrecognisedLoginFormat_NoLookup() {
+        // Given
+        AuthRequest request = new AuthRequest();
+        request.setLogin("john");
+        request.setPassword("password123");
+
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> userService.authenticate(request));
+        verifyNoInteractions(userLookupService);
+    }
+}
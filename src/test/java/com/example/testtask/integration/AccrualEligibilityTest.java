@@ -0,0 +1,77 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.dto.UserCreateRequest;
+import com.example.testtask.entity.Account;
+import com.example.testtask.repository.AccountRepository;
+import com.example.testtask.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccrualEligibilityTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testEligibleIds_ExcludeAccountsAtCap() {
+        Account belowCap = createAccount("Below", "below@accrual.com", "79300000001", new BigDecimal("100.00"));
+        Account atCap = createAccount("AtCap", "atcap@accrual.com", "79300000002", new BigDecimal("33.33"));
+
+        // 33.33 * 2.07 = 68.9931, stored balances are rounded to cents
+        setBalance(belowCap.getId(), new BigDecimal("206.99"));
+        setBalance(atCap.getId(), new BigDecimal("68.99"));
+
+        List<Long> eligible = accountRepository.findAccrualEligibleIds(0, Long.MAX_VALUE, 1000);
+
+        assertTrue(eligible.contains(belowCap.getId()));
+        assertFalse(eligible.contains(atCap.getId()));
+    }
+
+    @Test
+    void testEligibleIds_KeysetPaging() {
+        Account first = createAccount("First", "first@accrual.com", "79300000003", new BigDecimal("100.00"));
+        Account second = createAccount("Second", "second@accrual.com", "79300000004", new BigDecimal("100.00"));
+
+        List<Long> afterFirst = accountRepository.findAccrualEligibleIds(first.getId(), Long.MAX_VALUE, 1000);
+
+        assertFalse(afterFirst.contains(first.getId()));
+        assertTrue(afterFirst.contains(second.getId()));
+        assertEquals(1, accountRepository.findAccrualEligibleIds(0, Long.MAX_VALUE, 1).size());
+    }
+
+    private void setBalance(Long accountId, BigDecimal balance) {
+        jdbcTemplate.update("UPDATE account SET balance = ? WHERE id = ?", balance, accountId);
+    }
+
+    private Account createAccount(String name, String email, String phone, BigDecimal initialBalance) {
+        UserCreateRequest req = new UserCreateRequest();
+        req.setName(name);
+        req.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        req.setPassword("password123");
+        req.setInitialBalance(initialBalance);
+
+        UserCreateRequest.EmailRequest e = new UserCreateRequest.EmailRequest();
+        e.setEmail(email);
+        req.setEmails(List.of(e));
+
+        UserCreateRequest.PhoneRequest p = new UserCreateRequest.PhoneRequest();
+        p.setPhone(phone);
+        req.setPhones(List.of(p));
+
+        Long userId = userService.createUser(req).getId();
+        return accountRepository.findByUserId(userId).orElseThrow();
+    }
+}
@@ -0,0 +1,73 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.service.JwtService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.httpBasic;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Actuator endpoints other than health are for operator accounts only, not for self-registered users.
+ */
+@AutoConfigureMockMvc
+@TestPropertySource(properties = {
+    "spring.cache.type=redis",
+    "management.endpoints.web.exposure.include=health,info,prometheus,cacheregions",
+    "app.management.metrics.password=scrape-secret",
+    "app.management.admin.password=admin-secret"
+})
+class ActuatorSecurityTest extends BaseIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void testHealthIsPublic() throws Exception {
+        mockMvc.perform(get("/actuator/health")).andExpect(status().isOk());
+    }
+
+    @Test
+    void testPrometheusRequiresMetricsAccount() throws Exception {
+        mockMvc.perform(get("/actuator/prometheus")).andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus")
+                .header("Authorization", "Bearer " + jwtService.generateToken(1L)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("metrics", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("metrics", "scrape-secret")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/prometheus").with(httpBasic("admin", "admin-secret")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testCacheRegionsRequiresAdminAccount() throws Exception {
+        mockMvc.perform(get("/actuator/cacheregions")
+                .header("Authorization", "Bearer " + jwtService.generateToken(1L)))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/actuator/cacheregions").with(httpBasic("metrics", "scrape-secret")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/cacheregions/users").with(httpBasic("metrics", "scrape-secret")))
+                .andExpect(status().isForbidden());
+
+        mockMvc.perform(get("/actuator/cacheregions").with(httpBasic("admin", "admin-secret")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testOtherEndpointsRequireAdminAccount() throws Exception {
+        mockMvc.perform(get("/actuator/info").with(httpBasic("metrics", "scrape-secret")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/info").with(httpBasic("admin", "admin-secret")))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.config.CacheRegionGovernor;
+import com.example.testtask.dto.UserCreateRequest;
+import com.example.testtask.dto.UserResponse;
+import com.example.testtask.dto.UserUpdateRequest;
+import com.example.testtask.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Code that talks to Redis directly (governor, invalidation) must use the region's configured key prefix.
+ */
+@TestPropertySource(properties = {
+    "spring.cache.type=redis",
+    "app.cache.regions.users.key-prefix=tt:"
+})
+class CacheKeyPrefixTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private CacheRegionGovernor cacheRegionGovernor;
+
+    @Test
+    void testUpdateEvictsPrefixedKey() {
+        UserResponse user = createUser("PrefixedUser", "prefixed@test.com", "79300000001");
+        userService.getUserById(user.getId());
+        assertTrue(redisTemplate.hasKey("tt:users::" + user.getId()));
+        assertFalse(redisTemplate.hasKey("users::" + user.getId()));
+
+        UserUpdateRequest updateRequest = new UserUpdateRequest();
+        updateRequest.setName("PrefixedUserRenamed");
+        userService.updateUser(user.getId(), updateRequest);
+
+        assertFalse(redisTemplate.hasKey("tt:users::" + user.getId()), "Eviction deletes the prefixed key");
+        assertEquals("PrefixedUserRenamed", userService.getUserById(user.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void testGovernorScansPrefixedKeys() {
+        for (int i = 0; i < 3; i++) {
+            UserResponse user = createUser("Prefixed" + i, "prefixed" + i + "@test.com", "7930000001" + i);
+            userService.getUserById(user.getId());
+        }
+
+        CacheRegionGovernor.RegionStats stats = cacheRegionGovernor.stats("users");
+        assertEquals("tt:users::*", stats.keyPattern());
+        assertTrue(stats.keys() >= 3, "Prefixed entries are counted");
+
+        assertEquals(stats.keys() - 1, cacheRegionGovernor.trim("users", 1));
+        assertEquals(1, cacheRegionGovernor.stats("users").keys());
+    }
+
+    private UserResponse createUser(String name, String email, String phone) {
+        UserCreateRequest req = new UserCreateRequest();
+        req.setName(name);
+        req.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        req.setPassword("password123");
+        req.setInitialBalance(BigDecimal.valueOf(100));
+
+        List<UserCreateRequest.EmailRequest> emails = new ArrayList<>();
+        UserCreateRequest.EmailRequest e = new UserCreateRequest.EmailRequest();
+        e.setEmail(email);
+        emails.add(e);
+        req.setEmails(emails);
+
+        List<UserCreateRequest.PhoneRequest> phones = new ArrayList<>();
+        UserCreateRequest.PhoneRequest p = new UserCreateRequest.PhoneRequest();
+        p.setPhone(phone);
+        phones.add(p);
+        req.setPhones(phones);
+
+        return userService.createUser(req);
+    }
+}
@@ -1,11 +1,24 @@
 package com.example.testtask.integration;
 
+import com.example.testtask.config.CacheRegionGovernor;
+import com.example.testtask.dto.AuthRequest;
+import com.example.testtask.dto.TransferRequest;
 import com.example.testtask.dto.UserCreateRequest;
 import com.example.testtask.dto.UserResponse;
 import com.example.testtask.dto.UserUpdateRequest;
+import com.example.testtask.service.AccountService;
+import com.example.testtask.service.CacheWarmup;
 import com.example.testtask.service.UserService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.TestPropertySource;
 
 import java.math.BigDecimal;
@@ -16,13 +29,33 @@ import java.util.List;
 import static org.junit.jupiter.api.Assertions.*;
 
 @TestPropertySource(properties = {
-    "spring.cache.type=redis"
+    "spring.cache.type=redis",
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
 })
 class CacheTTLTest extends BaseIntegrationTest {
 
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private StringRedisTemplate redisTemplate;
+
+    @Autowired
+    private CacheWarmup cacheWarmup;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheRegionGovernor cacheRegionGovernor;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     @Test 
     void testCacheBasicFunctionality() {
         UserResponse created = createUser("TTLUser", "ttl@test.com", "79200000003");
@@ -51,6 +84,119 @@ class CacheTTLTest extends BaseIntegrationTest {
         assertEquals("CacheEvictUserUpdated", name2, "Should return updated value after service update");
     }
 
+    @Test
+    void testLoginCredentialsEvictedOnEmailUpdate() {
+        UserResponse created = createUser("CredentialsUser", "old-login@test.com", "79200000005");
+
+        AuthRequest login = new AuthRequest();
+        login.setLogin("old-login@test.com");
+        login.setPassword("password123");
+        assertNotNull(userService.authenticate(login).getToken(), "First login caches the credentials");
+
+        UserUpdateRequest updateRequest = new UserUpdateRequest();
+        UserUpdateRequest.EmailUpdateRequest email = new UserUpdateRequest.EmailUpdateRequest();
+        email.setEmail("new-login@test.com");
+        updateRequest.setEmails(List.of(email));
+        userService.updateUser(created.getId(), updateRequest);
+
+        assertThrows(IllegalArgumentException.class, () -> userService.authenticate(login),
+                "Removed email must not log in from a stale cache entry");
+        login.setLogin("new-login@test.com");
+        assertNotNull(userService.authenticate(login).getToken());
+    }
+
+    @Test
+    void testRepeatedLoginMissRunsNoQuery() {
+        AuthRequest login = new AuthRequest();
+        login.setLogin("no-such-login@test.com");
+        login.setPassword("password123");
+        assertThrows(IllegalArgumentException.class, () -> userService.authenticate(login));
+        assertNotNull(redisTemplate.opsForValue().get("loginMisses::no-such-login@test.com"),
+                "The miss is stored although the login failed");
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        assertThrows(IllegalArgumentException.class, () -> userService.authenticate(login));
+
+        assertEquals(0, statistics.getPrepareStatementCount(), "A known miss is answered from the cache");
+    }
+
+    @Test
+    void testTransferEvictsCachedBalancesOfBothUsers() {
+        UserResponse sender = createUser("CachedSender", "cached-sender@test.com", "79200000006");
+        UserResponse recipient = createUser("CachedRecipient", "cached-recipient@test.com", "79200000007");
+
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(userService.getUserById(sender.getId()).orElseThrow().getBalance()));
+        assertEquals(0, BigDecimal.valueOf(100).compareTo(userService.getUserById(recipient.getId()).orElseThrow().getBalance()));
+
+        TransferRequest transfer = new TransferRequest();
+        transfer.setTransferTo(recipient.getId());
+        transfer.setAmount(BigDecimal.valueOf(40));
+        accountService.transferMoney(sender.getId(), transfer);
+
+        assertEquals(0, BigDecimal.valueOf(60).compareTo(userService.getUserById(sender.getId()).orElseThrow().getBalance()),
+                "Sender balance must not be served from the cache after the transfer");
+        assertEquals(0, BigDecimal.valueOf(140).compareTo(userService.getUserById(recipient.getId()).orElseThrow().getBalance()),
+                "Recipient balance must not be served from the cache after the transfer");
+    }
+
+    @Test
+    void testSearchPageSharesUsersCacheEntries() {
+        UserResponse first = createUser("BatchCachedOne", "batch-one@test.com", "79200000008");
+        UserResponse second = createUser("BatchCachedTwo", "batch-two@test.com", "79200000009");
+
+        Page<UserResponse> page = userService.searchUsers(null, null, "BatchCached", null, PageRequest.of(0, 10, Sort.by("id")));
+        assertEquals(List.of(first.getId(), second.getId()), page.getContent().stream().map(UserResponse::getId).toList());
+        assertNotNull(redisTemplate.opsForValue().get("users::" + first.getId()), "Search caches the page entries");
+        assertNotNull(redisTemplate.opsForValue().get("users::" + second.getId()), "Search caches the page entries");
+
+        assertEquals("BatchCachedOne", userService.getUserById(first.getId()).orElseThrow().getName(),
+                "Entries written by the batch are readable through the users cache");
+
+        UserUpdateRequest updateRequest = new UserUpdateRequest();
+        updateRequest.setName("BatchCachedRenamed");
+        userService.updateUser(second.getId(), updateRequest);
+
+        page = userService.searchUsers(null, null, "BatchCached", null, PageRequest.of(0, 10, Sort.by("id")));
+        assertEquals(List.of("BatchCachedOne", "BatchCachedRenamed"), page.getContent().stream().map(UserResponse::getName).toList());
+    }
+
+    @Test
+    void testWarmupCachesRecentlyActiveUsers() {
+        UserResponse active = createUser("WarmActive", "warm-active@test.com", "79200000010");
+        UserResponse inactive = createUser("WarmInactive", "warm-inactive@test.com", "79200000011");
+        jdbcTemplate.update("UPDATE users SET last_login_at = now() WHERE id = ?", active.getId());
+
+        assertTrue(cacheWarmup.warmUp() >= 1);
+
+        assertNotNull(redisTemplate.opsForValue().get("users::" + active.getId()));
+        assertNotNull(redisTemplate.opsForValue().get("credentialsByEmail::warm-active@test.com"));
+        assertNotNull(redisTemplate.opsForValue().get("credentialsByPhone::79200000010"));
+        assertNull(redisTemplate.opsForValue().get("users::" + inactive.getId()), "Users without logins are not warmed");
+
+        AuthRequest login = new AuthRequest();
+        login.setLogin("warm-active@test.com");
+        login.setPassword("password123");
+        assertNotNull(userService.authenticate(login).getToken(), "Warmed credentials log in");
+    }
+
+    @Test
+    void testRegionTrimmedToMaxEntries() {
+        for (int i = 0; i < 5; i++) {
+            UserResponse user = createUser("Bounded" + i, "bounded" + i + "@test.com", "7920000002" + i);
+            userService.getUserById(user.getId());
+        }
+        long cached = cacheRegionGovernor.stats("users").keys();
+        assertTrue(cached >= 5);
+
+        assertEquals(cached - 2, cacheRegionGovernor.trim("users", 2));
+
+        CacheRegionGovernor.RegionStats stats = cacheRegionGovernor.stats("users");
+        assertEquals(2, stats.keys());
+        assertTrue(stats.approximateBytes() > 0);
+        assertEquals(cached - 2, stats.evictions());
+    }
+
     private UserResponse createUser(String name, String email, String phone) {
         UserCreateRequest req = new UserCreateRequest();
         req.setName(name);
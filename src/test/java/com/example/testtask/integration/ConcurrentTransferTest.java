@@ -70,8 +70,8 @@ class ConcurrentTransferTest extends BaseIntegrationTest {
             System.out.println("Errors: " + errors);
         }
 
-        BigDecimal finalUser1Balance = accountService.getAccountByUserId(user1).orElseThrow().getBalance();
-        BigDecimal finalUser2Balance = accountService.getAccountByUserId(user2).orElseThrow().getBalance();
+        BigDecimal finalUser1Balance = accountService.getAccountByUserId(user1).orElseThrow().getBalance().toBigDecimal();
+        BigDecimal finalUser2Balance = accountService.getAccountByUserId(user2).orElseThrow().getBalance().toBigDecimal();
         
         System.out.println("Final User1 balance: " + finalUser1Balance);
         System.out.println("Final User2 balance: " + finalUser2Balance);
@@ -134,8 +134,8 @@ class ConcurrentTransferTest extends BaseIntegrationTest {
             System.out.println("Errors: " + errors);
         }
 
-        BigDecimal finalUser1Balance = accountService.getAccountByUserId(user1).orElseThrow().getBalance();
-        BigDecimal finalUser2Balance = accountService.getAccountByUserId(user2).orElseThrow().getBalance();
+        BigDecimal finalUser1Balance = accountService.getAccountByUserId(user1).orElseThrow().getBalance().toBigDecimal();
+        BigDecimal finalUser2Balance = accountService.getAccountByUserId(user2).orElseThrow().getBalance().toBigDecimal();
         
         BigDecimal totalMoney = finalUser1Balance.add(finalUser2Balance);
         assertEquals(0, BigDecimal.valueOf(200).compareTo(totalMoney), "Total money should remain constant");
@@ -0,0 +1,94 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.dto.TransferRequest;
+import com.example.testtask.dto.UserCreateRequest;
+import com.example.testtask.dto.UserResponse;
+import com.example.testtask.entity.OutboxEvent;
+import com.example.testtask.repository.OutboxEventRepository;
+import com.example.testtask.service.AccountService;
+import com.example.testtask.service.InMemoryOutboxSink;
+import com.example.testtask.service.OutboxRelay;
+import com.example.testtask.service.OutboxService;
+import com.example.testtask.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@TestPropertySource(properties = {
+    "app.outbox.sink=memory"
+})
+class OutboxTest extends BaseIntegrationTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private InMemoryOutboxSink sink;
+
+    @Test
+    void testEventsRelayedInCommitOrder() {
+        UserResponse sender = createUser("Sender", "sender@outbox.com", "79400000001");
+        UserResponse recipient = createUser("Recipient", "recipient@outbox.com", "79400000002");
+
+        TransferRequest transfer = new TransferRequest();
+        transfer.setTransferTo(recipient.getId());
+        transfer.setAmount(new BigDecimal("30.00"));
+        accountService.transferMoney(sender.getId(), transfer);
+
+        assertEquals(3, outboxEventRepository.count(), "Events are stored with their changes");
+
+        assertEquals(3, outboxRelay.relayPending());
+
+        List<String> types = sink.getEvents().stream().map(OutboxEvent::getEventType).toList();
+        assertEquals(List.of(OutboxService.USER_CREATED, OutboxService.USER_CREATED, OutboxService.TRANSFER_COMPLETED),
+                types);
+        assertTrue(sink.getEvents().get(2).getPayload().contains("\"amount\":30.00"));
+        assertEquals(0, outboxEventRepository.count(), "Relayed events are removed");
+    }
+
+    @Test
+    void testRejectedTransferWritesNoEvent() {
+        UserResponse sender = createUser("Poor", "poor@outbox.com", "79400000003");
+        outboxRelay.relayPending();
+
+        TransferRequest transfer = new TransferRequest();
+        transfer.setTransferTo(sender.getId() + 1000);
+        transfer.setAmount(new BigDecimal("30.00"));
+        assertThrows(RuntimeException.class, () -> accountService.transferMoney(sender.getId(), transfer));
+
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    private UserResponse createUser(String name, String email, String phone) {
+        UserCreateRequest req = new UserCreateRequest();
+        req.setName(name);
+        req.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        req.setPassword("password123");
+        req.setInitialBalance(new BigDecimal("100.00"));
+
+        UserCreateRequest.EmailRequest e = new UserCreateRequest.EmailRequest();
+        e.setEmail(email);
+        req.setEmails(List.of(e));
+
+        UserCreateRequest.PhoneRequest p = new UserCreateRequest.PhoneRequest();
+        p.setPhone(phone);
+        req.setPhones(List.of(p));
+
+        return userService.createUser(req);
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.load.SyntheticDataGenerator;
+import com.example.testtask.service.BalanceOperationsScheduler;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParallelAccrualTest extends BaseIntegrationTest {
+
+    private static final int TICKS = 4;
+
+    @Autowired
+    private BalanceOperationsScheduler scheduler;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testPartitionedAccrual_MatchesSequentialRun() {
+        new SyntheticDataGenerator(jdbcTemplate, 7).generate(300);
+        // Spread balances between 1.0x and 2.0x of the initial balance so some accounts hit the cap mid-run
+        jdbcTemplate.update("UPDATE account SET balance = ROUND(initial_balance * (1 + (id % 11) / 10.0), 2)");
+        Map<Long, BigDecimal> start = balances();
+
+        for (int i = 0; i < TICKS; i++) {
+            scheduler.increaseBalances(1);
+        }
+        Map<Long, BigDecimal> sequential = balances();
+
+        restore(start);
+        for (int i = 0; i < TICKS; i++) {
+            scheduler.increaseBalances(4);
+        }
+        Map<Long, BigDecimal> partitioned = balances();
+
+        assertNotEquals(start, sequential);
+        assertEquals(sequential, partitioned);
+    }
+
+    private Map<Long, BigDecimal> balances() {
+        Map<Long, BigDecimal> balances = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, balance FROM account ORDER BY id",
+                rs -> { balances.put(rs.getLong("id"), rs.getBigDecimal("balance")); });
+        return balances;
+    }
+
+    private void restore(Map<Long, BigDecimal> balances) {
+        List<Object[]> rows = balances.entrySet().stream()
+                .map(entry -> new Object[]{entry.getValue(), entry.getKey()})
+                .toList();
+        jdbcTemplate.batchUpdate("UPDATE account SET balance = ? WHERE id = ?", rows);
+    }
+}
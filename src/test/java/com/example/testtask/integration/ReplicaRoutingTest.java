@@ -0,0 +1,91 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.config.ReplicaLagMonitor;
+import com.example.testtask.config.WorkloadRoutingDataSource;
+import com.example.testtask.service.UserLookupService;
+import com.example.testtask.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.utility.DockerImageName;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A second database stands in for the replica; routing is checked by the database each transaction lands on.
+ */
+@TestPropertySource(properties = "app.datasource.replica.enabled=true")
+class ReplicaRoutingTest extends BaseIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> replica = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("replicadb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @DynamicPropertySource
+    static void configureReplica(DynamicPropertyRegistry registry) {
+        registry.add("app.datasource.replica.hikari.jdbc-url", replica::getJdbcUrl);
+        registry.add("app.datasource.replica.hikari.username", replica::getUsername);
+        registry.add("app.datasource.replica.hikari.password", replica::getPassword);
+        registry.add("app.datasource.replica.lag-check-interval", () -> "3600000");
+    }
+
+    @Autowired
+    private ReplicaLagMonitor replicaLagMonitor;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserLookupService userLookupService;
+
+    @Test
+    void testReadOnlyTransactions_UseReplicaWhileHealthy() {
+        replicaLagMonitor.refresh();
+        assertTrue(replicaLagMonitor.isHealthy());
+
+        assertEquals("replicadb", currentDatabase(true));
+        assertEquals("testdb", currentDatabase(false));
+        assertEquals("testdb", jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+
+        // Replica gone: the next check marks it unhealthy and reads fall back to the primary
+        replica.stop();
+        replicaLagMonitor.refresh();
+
+        assertFalse(replicaLagMonitor.isHealthy());
+        assertEquals("testdb", currentDatabase(true));
+    }
+
+    @Test
+    void testCacheFillingReads_UsePrimary() {
+        replicaLagMonitor.refresh();
+        assertTrue(replicaLagMonitor.isHealthy());
+
+        assertEquals("testdb", WorkloadRoutingDataSource.readFromPrimary(() -> currentDatabase(true)));
+        assertEquals("replicadb", currentDatabase(true));
+
+        // The replica database has no schema, so these only succeed on the primary
+        assertTrue(userService.getUserById(101L).isPresent());
+        assertTrue(userLookupService.findByEmail("alice.johnson@example.com").isPresent());
+    }
+
+    private String currentDatabase(boolean readOnly) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+}
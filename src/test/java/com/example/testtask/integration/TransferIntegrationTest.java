@@ -5,6 +5,8 @@ import com.example.testtask.dto.AuthResponse;
 import com.example.testtask.dto.TransferRequest;
 import com.example.testtask.dto.UserCreateRequest;
 import com.example.testtask.dto.UserResponse;
+import com.example.testtask.service.BalanceChangedEvent;
+import com.example.testtask.service.BalanceStreamService;
 import com.example.testtask.service.UserService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -19,6 +21,8 @@ import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -34,6 +38,9 @@ class TransferIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private BalanceStreamService balanceStreamService;
+
     @Test
     void transferMoney_Success() throws Exception {
         UserResponse user1 = createUser("User1", "user1@transfer.com", "79200000101");
@@ -146,6 +153,61 @@ class TransferIntegrationTest extends BaseIntegrationTest {
                 .andExpect(status().isBadRequest());
     }
 
+    @Test
+    void transferMoney_PushesBalanceToRecipientStream() throws Exception {
+        createUser("User1", "user1@stream.com", "79200000161");
+        UserResponse user2 = createUser("User2", "user2@stream.com", "79200000162");
+
+        String senderToken = authenticateUser("user1@stream.com", "password123");
+        String recipientToken = authenticateUser("user2@stream.com", "password123");
+
+        MvcResult stream = mockMvc.perform(get("/api/accounts/balance/stream")
+                .header("Authorization", "Bearer " + recipientToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        TransferRequest transferRequest = new TransferRequest();
+        transferRequest.setTransferTo(user2.getId());
+        transferRequest.setAmount(BigDecimal.valueOf(25));
+
+        mockMvc.perform(post("/api/accounts/transfer")
+                .header("Authorization", "Bearer " + senderToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(transferRequest)))
+                .andExpect(status().isOk());
+
+        // delivered after commit through Redis pub/sub
+        long deadline = System.currentTimeMillis() + 5000;
+        String events = stream.getResponse().getContentAsString();
+        while (!events.contains("\"balance\":125") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+            events = stream.getResponse().getContentAsString();
+        }
+
+        assertTrue(events.contains("\"balance\":100"), "Stream starts with the current balance: " + events);
+        assertTrue(events.contains("\"balance\":125"), "Stream receives the transfer: " + events);
+    }
+
+    @Test
+    void balanceStream_DropsChangesArrivingOutOfOrder() throws Exception {
+        UserResponse user = createUser("User1", "user1@order.com", "79200000171");
+        String token = authenticateUser("user1@order.com", "password123");
+
+        MvcResult stream = mockMvc.perform(get("/api/accounts/balance/stream")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        balanceStreamService.receive(objectMapper.writeValueAsString(
+                BalanceChangedEvent.of(user.getId(), new BigDecimal("300.00"), 2L)));
+        balanceStreamService.receive(objectMapper.writeValueAsString(
+                BalanceChangedEvent.of(user.getId(), new BigDecimal("200.00"), 1L)));
+
+        String events = stream.getResponse().getContentAsString();
+        assertTrue(events.contains("\"balance\":300.00"), "Newer change is sent: " + events);
+        assertFalse(events.contains("\"balance\":200.00"), "Older change arriving later is dropped: " + events);
+    }
+
     private UserResponse createUser(String name, String email, String phone) {
         UserCreateRequest req = new UserCreateRequest();
         req.setName(name);
@@ -1,17 +1,21 @@
 package com.example.testtask.integration;
 
 import com.example.testtask.dto.UserCreateRequest;
+import com.example.testtask.dto.UserResponse;
+import com.example.testtask.service.JwtService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -24,6 +28,9 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private JwtService jwtService;
+
     @Test
     void createUser_ValidRequest_ShouldSucceed() throws Exception {
         UserCreateRequest request = new UserCreateRequest();
@@ -110,4 +117,46 @@ class UserControllerIntegrationTest extends BaseIntegrationTest {
                 .content(objectMapper.writeValueAsString(request)))
                 .andExpect(status().isBadRequest());
     }
-} 
\ No newline at end of file
+
+    @Test
+    void exportUsers_StreamsNdjson() throws Exception {
+        UserCreateRequest request = new UserCreateRequest();
+        request.setName("Export User");
+        request.setDateOfBirth(LocalDate.of(1990, 1, 1));
+        request.setPassword("password123");
+        request.setInitialBalance(BigDecimal.valueOf(1000));
+
+        UserCreateRequest.EmailRequest emailRequest = new UserCreateRequest.EmailRequest();
+        emailRequest.setEmail("export@example.com");
+        request.setEmails(List.of(emailRequest));
+
+        UserCreateRequest.PhoneRequest phoneRequest = new UserCreateRequest.PhoneRequest();
+        phoneRequest.setPhone("79001234571");
+        request.setPhones(List.of(phoneRequest));
+
+        String created = mockMvc.perform(post("/api/users")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        Long userId = objectMapper.readValue(created, UserResponse.class).getId();
+
+        MvcResult result = mockMvc.perform(get("/api/users/export")
+                .param("name", "Export User")
+                .header("Authorization", "Bearer " + jwtService.generateToken(userId)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(1, lines.length);
+        UserResponse exported = objectMapper.readValue(lines[0], UserResponse.class);
+        assertEquals(userId, exported.getId());
+        assertEquals(List.of("export@example.com"), exported.getEmails());
+        assertEquals(0, new BigDecimal("1000").compareTo(exported.getBalance()));
+    }
+}
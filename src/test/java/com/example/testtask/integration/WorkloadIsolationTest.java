@@ -0,0 +1,108 @@
+package com.example.testtask.integration;
+
+import com.example.testtask.dto.TransferRequest;
+import com.example.testtask.load.SyntheticDataGenerator;
+import com.example.testtask.service.AccountService;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Transfers must not depend on the jobs pool: they keep working, on the interactive pool, while every jobs connection
+ * is taken. A transfer routed to the jobs pool would fail after the short connection timeout set here.
+ */
+@Slf4j
+@TestPropertySource(properties = "app.datasource.jobs.hikari.connection-timeout=250")
+class WorkloadIsolationTest extends BaseIntegrationTest {
+
+    private static final int TRANSFERS = 200;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    @Qualifier("jobsDataSource")
+    private HikariDataSource jobsDataSource;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testTransfers_UseInteractivePoolWhileJobsPoolIsSaturated() throws SQLException {
+        SyntheticDataGenerator.Dataset dataset = new SyntheticDataGenerator(jdbcTemplate, 11).generate(1_000);
+        long alice = dataset.userId(0);
+        long bob = dataset.userId(1);
+
+        transfers(alice, bob, 50);
+        long idleP95 = p95(transfers(alice, bob, TRANSFERS));
+
+        List<Connection> held = new ArrayList<>();
+        long[] busy;
+        long interactiveUsesBefore = connectionUses("interactive");
+        long jobsUsesBefore;
+        try {
+            // Saturate the jobs pool, as a long accrual tick or export would
+            for (int i = 0; i < jobsDataSource.getMaximumPoolSize(); i++) {
+                held.add(jobsDataSource.getConnection());
+            }
+            assertEquals(jobsDataSource.getMaximumPoolSize(), jobsDataSource.getHikariPoolMXBean().getActiveConnections());
+            jobsUsesBefore = connectionUses("jobs");
+
+            busy = transfers(alice, bob, TRANSFERS);
+
+            assertEquals(0, jobsDataSource.getHikariPoolMXBean().getThreadsAwaitingConnection(),
+                    "No transfer waited for a jobs connection");
+            assertEquals(jobsUsesBefore, connectionUses("jobs"), "No jobs connection was returned during the transfers");
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+
+        assertTrue(connectionUses("interactive") - interactiveUsesBefore >= TRANSFERS,
+                "Each transfer borrowed an interactive connection");
+        // Observation only: wall-clock latency depends on the machine running the test
+        log.info("Transfer p95 {} ms with the jobs pool idle, {} ms with it saturated",
+                String.format("%.1f", idleP95 / 1e6), String.format("%.1f", p95(busy) / 1e6));
+    }
+
+    private long connectionUses(String pool) {
+        return meterRegistry.get("hikaricp.connections.usage").tag("pool", pool).timer().count();
+    }
+
+    private long[] transfers(long alice, long bob, int count) {
+        long[] latencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            TransferRequest request = new TransferRequest();
+            request.setTransferTo(i % 2 == 0 ? bob : alice);
+            request.setAmount(new BigDecimal("0.01"));
+            long start = System.nanoTime();
+            accountService.transferMoney(i % 2 == 0 ? alice : bob, request);
+            latencies[i] = System.nanoTime() - start;
+        }
+        return latencies;
+    }
+
+    private static long p95(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.ceil(sorted.length * 0.95) - 1];
+    }
+}
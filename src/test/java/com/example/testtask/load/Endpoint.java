@@ -0,0 +1,29 @@
+package com.example.testtask.load;
+
+public enum Endpoint {
+    LOGIN("login", "POST /api/auth/login"),
+    GET_USER("user", "GET /api/users/{id}"),
+    SEARCH("search", "GET /api/users/search"),
+    TRANSFER("transfer", "POST /api/accounts/transfer");
+
+    private final String key;
+    private final String label;
+
+    Endpoint(String key, String label) {
+        this.key = key;
+        this.label = label;
+    }
+
+    public String label() {
+        return label;
+    }
+
+    static Endpoint fromKey(String key) {
+        for (Endpoint endpoint : values()) {
+            if (endpoint.key.equals(key)) {
+                return endpoint;
+            }
+        }
+        throw new IllegalArgumentException("Unknown endpoint in load.mix: " + key);
+    }
+}
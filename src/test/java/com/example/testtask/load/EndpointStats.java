@@ -0,0 +1,48 @@
+package com.example.testtask.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (microseconds, measured from the intended start time) and error counts for one endpoint.
+ */
+public class EndpointStats {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, 3);
+    private final LongAdder errors = new LongAdder();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+
+    public void record(long latencyNanos, int status) {
+        recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(latencyNanos), HIGHEST_TRACKABLE_MICROS));
+        statuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+        if (status < 200 || status >= 300) {
+            errors.increment();
+        }
+    }
+
+    public void recordFailure(long latencyNanos) {
+        record(latencyNanos, 0);
+    }
+
+    public Histogram snapshot() {
+        return recorder.getIntervalHistogram();
+    }
+
+    public long errors() {
+        return errors.sum();
+    }
+
+    public Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        return counts;
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.testtask.load;
+
+import com.example.testtask.load.SyntheticDataGenerator.Dataset;
+import com.example.testtask.service.JwtService;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop load generator: requests are scheduled at a fixed rate regardless of how fast the server answers,
+ * and latency is measured from the intended send time so queueing delay is not hidden (no coordinated omission).
+ */
+@Slf4j
+public class LoadDriver {
+
+    private final URI baseUri;
+    private final Dataset dataset;
+    private final LoadSettings settings;
+    private final String[] tokens;
+    private final ZipfSampler sampler;
+    private final Endpoint[] mixTable;
+    private final Map<Endpoint, EndpointStats> stats = new EnumMap<>(Endpoint.class);
+    private final HttpClient client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    public LoadDriver(URI baseUri, Dataset dataset, JwtService jwtService, LoadSettings settings) {
+        this.baseUri = baseUri;
+        this.dataset = dataset;
+        this.settings = settings;
+        this.sampler = new ZipfSampler(dataset.size(), settings.skew(), settings.seed());
+        this.tokens = new String[dataset.size()];
+        for (int i = 0; i < tokens.length; i++) {
+            tokens[i] = jwtService.generateToken(dataset.userId(i));
+        }
+        this.mixTable = settings.mix().entrySet().stream()
+                .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+                .toArray(Endpoint[]::new);
+        for (Endpoint endpoint : Endpoint.values()) {
+            stats.put(endpoint, new EndpointStats());
+        }
+    }
+
+    public LoadReport run() throws InterruptedException {
+        SplittableRandom random = new SplittableRandom(settings.seed());
+        ExecutorService workers = Executors.newFixedThreadPool(settings.threads());
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / settings.rate());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long end = measureFrom + settings.duration().toNanos();
+
+        log.info("Load run: {} req/s, warmup {}, measured {}, {} users, mix {}",
+                settings.rate(), settings.warmup(), settings.duration(), dataset.size(), settings.mix());
+
+        for (long intended = start; intended < end; intended += interval) {
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            Endpoint endpoint = mixTable[random.nextInt(mixTable.length)];
+            HttpRequest request = requestFor(endpoint, random);
+            EndpointStats target = intended >= measureFrom ? stats.get(endpoint) : null;
+            long scheduledAt = intended;
+            workers.execute(() -> send(request, scheduledAt, target));
+        }
+
+        workers.shutdown();
+        if (!workers.awaitTermination(2, TimeUnit.MINUTES)) {
+            workers.shutdownNow();
+        }
+        return new LoadReport(settings.duration(), stats);
+    }
+
+    private HttpRequest requestFor(Endpoint endpoint, SplittableRandom random) {
+        int caller = sampler.next(random);
+        long callerId = dataset.userId(caller);
+        return switch (endpoint) {
+            case LOGIN -> {
+                String login = random.nextBoolean()
+                        ? SyntheticDataGenerator.email(callerId)
+                        : SyntheticDataGenerator.phone(callerId);
+                yield json("/api/auth/login", null,
+                        "{\"login\":\"" + login + "\",\"password\":\"" + SyntheticDataGenerator.PASSWORD + "\"}");
+            }
+            case GET_USER -> get("/api/users/" + dataset.userId(sampler.next(random)), tokens[caller]);
+            case SEARCH -> get("/api/users/search?" + searchQuery(random), tokens[caller]);
+            case TRANSFER -> {
+                int recipient = sampler.next(random);
+                if (recipient == caller) {
+                    recipient = (recipient + 1) % dataset.size();
+                }
+                String amount = "0." + String.format("%02d", 1 + random.nextInt(99));
+                yield json("/api/accounts/transfer", tokens[caller],
+                        "{\"transferTo\":" + dataset.userId(recipient) + ",\"amount\":" + amount + "}");
+            }
+        };
+    }
+
+    private String searchQuery(SplittableRandom random) {
+        long userId = dataset.userId(sampler.next(random));
+        return switch (random.nextInt(3)) {
+            case 0 -> "name=" + URLEncoder.encode("Load User " + (userId / 10), StandardCharsets.UTF_8) + "&size=10";
+            case 1 -> "email=" + URLEncoder.encode(SyntheticDataGenerator.email(userId), StandardCharsets.UTF_8);
+            default -> "phone=" + SyntheticDataGenerator.phone(userId);
+        };
+    }
+
+    private HttpRequest get(String path, String token) {
+        return HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Authorization", "Bearer " + token)
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+    }
+
+    private HttpRequest json(String path, String token, String body) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(baseUri.resolve(path))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder.build();
+    }
+
+    private void send(HttpRequest request, long intendedStart, EndpointStats target) {
+        try {
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            if (target != null) {
+                target.record(System.nanoTime() - intendedStart, response.statusCode());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.debug("Request failed: {} {}", request.uri(), e.toString());
+            if (target != null) {
+                target.recordFailure(System.nanoTime() - intendedStart);
+            }
+        }
+    }
+}
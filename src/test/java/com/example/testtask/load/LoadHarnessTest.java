@@ -0,0 +1,90 @@
+package com.example.testtask.load;
+
+import com.example.testtask.service.JwtService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.TestPropertySource;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * End-to-end load run against the full stack (Postgres + Redis cache + HTTP). Excluded from the default build;
+ * run with {@code mvn test -Pload} and tune with {@code -Dload.users}, {@code -Dload.rate}, {@code -Dload.duration},
+ * {@code -Dload.warmup}, {@code -Dload.skew}, {@code -Dload.threads} and {@code -Dload.mix}.
+ */
+@Slf4j
+@Tag("load")
+@Testcontainers
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@TestPropertySource(properties = {
+    "spring.cache.type=redis",
+    "spring.jpa.show-sql=false",
+    "logging.level.com.example.testtask=WARN",
+    "logging.level.org.springframework.cache=WARN"
+})
+class LoadHarnessTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("loaddb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl() + "&reWriteBatchedInserts=true");
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.data.redis.host", redis::getHost);
+        registry.add("spring.data.redis.port", redis::getFirstMappedPort);
+        registry.add("spring.liquibase.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JwtService jwtService;
+
+    @Test
+    void mixedWorkload() throws Exception {
+        LoadSettings settings = LoadSettings.fromSystemProperties();
+
+        long seedingStart = System.nanoTime();
+        SyntheticDataGenerator.Dataset dataset = new SyntheticDataGenerator(jdbcTemplate, settings.seed())
+                .generate(settings.users());
+        log.warn("Seeded {} users in {} ms", dataset.size(), (System.nanoTime() - seedingStart) / 1_000_000);
+
+        LoadReport report = new LoadDriver(URI.create("http://localhost:" + port), dataset, jwtService, settings).run();
+
+        String formatted = report.format();
+        log.warn("Load report ({} requests, {} errors):\n{}", report.totalRequests(), report.totalErrors(), formatted);
+        Files.writeString(Path.of("target", "load-report.txt"), formatted);
+
+        assertTrue(report.totalRequests() > 0, "No requests were measured");
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.testtask.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Per-endpoint throughput, error rate and latency percentiles for the measured window of a load run.
+ */
+public class LoadReport {
+
+    private final Duration window;
+    private final Map<Endpoint, Histogram> histograms = new EnumMap<>(Endpoint.class);
+    private final Map<Endpoint, EndpointStats> stats;
+
+    LoadReport(Duration window, Map<Endpoint, EndpointStats> stats) {
+        this.window = window;
+        this.stats = stats;
+        stats.forEach((endpoint, endpointStats) -> histograms.put(endpoint, endpointStats.snapshot()));
+    }
+
+    public long totalRequests() {
+        return histograms.values().stream().mapToLong(Histogram::getTotalCount).sum();
+    }
+
+    public long totalErrors() {
+        return stats.values().stream().mapToLong(EndpointStats::errors).sum();
+    }
+
+    public String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("%-28s %9s %9s %8s %9s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+        histograms.forEach((endpoint, histogram) -> {
+            long count = histogram.getTotalCount();
+            if (count == 0) {
+                return;
+            }
+            out.append(String.format("%-28s %9d %9.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+                    endpoint.label(),
+                    count,
+                    count / (double) window.toSeconds(),
+                    stats.get(endpoint).errors(),
+                    millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(90)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue())));
+        });
+        stats.forEach((endpoint, endpointStats) -> {
+            if (endpointStats.errors() > 0) {
+                out.append(String.format("%s status codes: %s%n", endpoint.label(), endpointStats.statuses()));
+            }
+        });
+        return out.toString();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
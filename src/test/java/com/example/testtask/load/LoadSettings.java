@@ -0,0 +1,43 @@
+package com.example.testtask.load;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Load harness settings, read from {@code -Dload.*} system properties.
+ */
+public record LoadSettings(
+        int users,
+        double rate,
+        Duration warmup,
+        Duration duration,
+        int threads,
+        double skew,
+        long seed,
+        Map<Endpoint, Integer> mix) {
+
+    public static LoadSettings fromSystemProperties() {
+        return new LoadSettings(
+                Integer.getInteger("load.users", 10_000),
+                Double.parseDouble(System.getProperty("load.rate", "200")),
+                Duration.ofSeconds(Long.getLong("load.warmup", 10L)),
+                Duration.ofSeconds(Long.getLong("load.duration", 60L)),
+                Integer.getInteger("load.threads", 32),
+                Double.parseDouble(System.getProperty("load.skew", "1.1")),
+                Long.getLong("load.seed", 42L),
+                parseMix(System.getProperty("load.mix", "login:10,user:50,search:20,transfer:20")));
+    }
+
+    static Map<Endpoint, Integer> parseMix(String mix) {
+        Map<Endpoint, Integer> weights = new EnumMap<>(Endpoint.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid load.mix entry: " + entry);
+            }
+            weights.put(Endpoint.fromKey(parts[0].trim()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
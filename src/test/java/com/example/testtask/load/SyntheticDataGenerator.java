@@ -0,0 +1,91 @@
+package com.example.testtask.load;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.math.BigDecimal;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Seeds users with accounts, emails and phones through batched JDBC inserts,
+ * bypassing the service layer (and its per-user BCrypt hashing) to keep seeding fast.
+ */
+public class SyntheticDataGenerator {
+
+    public static final String PASSWORD = "password123";
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final SplittableRandom random;
+
+    public SyntheticDataGenerator(JdbcTemplate jdbcTemplate, long seed) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.random = new SplittableRandom(seed);
+    }
+
+    public Dataset generate(int users) {
+        long firstId = jdbcTemplate.queryForObject(
+                "SELECT GREATEST((SELECT COALESCE(MAX(id), 0) FROM users), (SELECT COALESCE(MAX(id), 0) FROM account),"
+                        + " (SELECT COALESCE(MAX(id), 0) FROM email_data), (SELECT COALESCE(MAX(id), 0) FROM phone_data)) + 1000",
+                Long.class);
+        String passwordHash = new BCryptPasswordEncoder().encode(PASSWORD);
+
+        long[] ids = new long[users];
+        for (int offset = 0; offset < users; offset += BATCH_SIZE) {
+            int size = Math.min(BATCH_SIZE, users - offset);
+            List<Object[]> userRows = new ArrayList<>(size);
+            List<Object[]> accountRows = new ArrayList<>(size);
+            List<Object[]> emailRows = new ArrayList<>(size);
+            List<Object[]> phoneRows = new ArrayList<>(size);
+
+            for (int i = 0; i < size; i++) {
+                long id = firstId + offset + i;
+                ids[offset + i] = id;
+                LocalDate dateOfBirth = LocalDate.of(1950, 1, 1).plusDays(random.nextInt(20_000));
+                BigDecimal balance = BigDecimal.valueOf(10_000 + random.nextInt(990_000), 2);
+
+                userRows.add(new Object[]{id, "Load User " + id, Date.valueOf(dateOfBirth), passwordHash});
+                accountRows.add(new Object[]{id, id, balance, balance});
+                emailRows.add(new Object[]{id, email(id)});
+                phoneRows.add(new Object[]{id, phone(id)});
+            }
+
+            jdbcTemplate.batchUpdate("INSERT INTO users (id, name, date_of_birth, password) VALUES (?, ?, ?, ?)", userRows);
+            jdbcTemplate.batchUpdate("INSERT INTO account (id, user_id, balance, initial_balance) VALUES (?, ?, ?, ?)", accountRows);
+            jdbcTemplate.batchUpdate("INSERT INTO email_data (id, user_id, email) VALUES (?, ?, ?)",
+                    emailRows.stream().map(row -> new Object[]{row[0], row[0], row[1]}).toList());
+            jdbcTemplate.batchUpdate("INSERT INTO phone_data (id, user_id, phone) VALUES (?, ?, ?)",
+                    phoneRows.stream().map(row -> new Object[]{row[0], row[0], row[1]}).toList());
+        }
+
+        for (String table : List.of("users", "account", "email_data", "phone_data")) {
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), (SELECT MAX(id) FROM " + table + "))");
+        }
+        jdbcTemplate.execute("ANALYZE");
+        return new Dataset(ids);
+    }
+
+    public static String email(long userId) {
+        return "user" + userId + "@load.test";
+    }
+
+    public static String phone(long userId) {
+        return "7" + String.format("%010d", userId);
+    }
+
+    public record Dataset(long[] userIds) {
+
+        public int size() {
+            return userIds.length;
+        }
+
+        public long userId(int index) {
+            return userIds[index];
+        }
+    }
+}
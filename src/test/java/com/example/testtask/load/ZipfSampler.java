@@ -0,0 +1,46 @@
+package com.example.testtask.load;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Samples indexes in {@code [0, size)} with a Zipf distribution, so a few "hot" indexes receive most picks.
+ * Ranks are mapped through a seeded permutation to keep hot users spread over the id range.
+ */
+public class ZipfSampler {
+
+    private final double[] cumulative;
+    private final int[] rankToIndex;
+
+    public ZipfSampler(int size, double exponent, long seed) {
+        cumulative = new double[size];
+        double sum = 0;
+        for (int rank = 0; rank < size; rank++) {
+            sum += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = sum;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= sum;
+        }
+
+        rankToIndex = new int[size];
+        for (int i = 0; i < size; i++) {
+            rankToIndex[i] = i;
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = size - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = rankToIndex[i];
+            rankToIndex[i] = rankToIndex[j];
+            rankToIndex[j] = tmp;
+        }
+    }
+
+    public int next(SplittableRandom random) {
+        int rank = Arrays.binarySearch(cumulative, random.nextDouble());
+        if (rank < 0) {
+            rank = Math.min(-rank - 1, cumulative.length - 1);
+        }
+        return rankToIndex[rank];
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.testtask.startup;
+
+import com.example.testtask.TestTaskApplication;
+import liquibase.Scope;
+import liquibase.command.CommandScope;
+import liquibase.command.core.UpdateCommandStep;
+import liquibase.command.core.helpers.DbUrlConnectionCommandStep;
+import liquibase.database.Database;
+import liquibase.database.DatabaseFactory;
+import liquibase.database.jvm.JdbcConnection;
+import liquibase.resource.ClassLoaderResourceAccessor;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Measures how long the application takes to become ready and how slow the first requests are, the way a new
+ * instance starts when scaling out: the schema is migrated beforehand by a separate job, and the instance runs with
+ * the {@code fast-start} profile (no Liquibase, no JDBC metadata lookup). Excluded from the default build; run with
+ * {@code mvn test -Pstartup}, other profiles with {@code -Dstartup.profiles}. Results go to
+ * {@code target/startup-report.txt}.
+ * <p>
+ * This is an in-process start, so it shows the effect of configuration on context refresh. AOT and CDS act on
+ * the packaged jar; measure them with the commands in the README.
+ */
+@Slf4j
+@Tag("startup")
+@Testcontainers
+class StartupTimeTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(DockerImageName.parse("postgres:15-alpine"))
+            .withDatabaseName("startupdb")
+            .withUsername("testuser")
+            .withPassword("testpass");
+
+    @Container
+    static GenericContainer<?> redis = new GenericContainer<>(DockerImageName.parse("redis:7-alpine"))
+            .withExposedPorts(6379);
+
+    private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void startupAndFirstRequests() throws Exception {
+        migrateSchema();
+        String profiles = System.getProperty("startup.profiles", "fast-start");
+
+        AtomicReference<Duration> readyTime = new AtomicReference<>();
+        long start = System.nanoTime();
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(TestTaskApplication.class)
+                .profiles(profiles.isBlank() ? new String[0] : profiles.split(","))
+                .listeners(event -> {
+                    if (event instanceof ApplicationReadyEvent ready) {
+                        readyTime.set(ready.getTimeTaken());
+                    }
+                })
+                .properties(
+                        "spring.datasource.url=" + postgres.getJdbcUrl(),
+                        "spring.datasource.username=" + postgres.getUsername(),
+                        "spring.datasource.password=" + postgres.getPassword(),
+                        "spring.data.redis.host=" + redis.getHost(),
+                        "spring.data.redis.port=" + redis.getFirstMappedPort(),
+                        "spring.docker.compose.enabled=false",
+                        "server.port=0")
+                .run();
+        long wallMillis = (System.nanoTime() - start) / 1_000_000;
+        try {
+            String baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+
+            Timed<HttpResponse<String>> readiness = timed(() -> get(baseUrl + "/actuator/health/readiness", null));
+            Timed<HttpResponse<String>> firstLogin = timed(() -> login(baseUrl));
+            Timed<HttpResponse<String>> secondLogin = timed(() -> login(baseUrl));
+            String token = firstLogin.result().body().replaceAll(".*\"token\"\\s*:\\s*\"([^\"]+)\".*", "$1");
+            Timed<HttpResponse<String>> firstRead = timed(() -> get(baseUrl + "/api/users/101", token));
+            Timed<HttpResponse<String>> secondRead = timed(() -> get(baseUrl + "/api/users/101", token));
+
+            String report = String.format("""
+                    profiles:                %s
+                    context ready (Boot):    %d ms
+                    start to ready (wall):   %d ms
+                    readiness probe:         %d ms (HTTP %d)
+                    first login:             %d ms
+                    second login:            %d ms
+                    first GET /api/users:    %d ms
+                    second GET /api/users:   %d ms
+                    """,
+                    profiles.isBlank() ? "default" : profiles, readyTime.get().toMillis(), wallMillis,
+                    readiness.millis(), readiness.result().statusCode(),
+                    firstLogin.millis(), secondLogin.millis(), firstRead.millis(), secondRead.millis());
+            log.info("Startup report:\n{}", report);
+            Files.writeString(Path.of("target", "startup-report.txt"), report);
+
+            assertEquals(200, readiness.result().statusCode());
+            assertEquals(200, firstLogin.result().statusCode());
+            assertEquals(200, firstRead.result().statusCode());
+        } finally {
+            context.close();
+        }
+    }
+
+    /**
+     * Stands in for the migration job that runs before instances start.
+     */
+    private static void migrateSchema() throws Exception {
+        try (Connection connection = DriverManager.getConnection(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())) {
+            Database database = DatabaseFactory.getInstance()
+                    .findCorrectDatabaseImplementation(new JdbcConnection(connection));
+            Scope.child(Scope.Attr.resourceAccessor, new ClassLoaderResourceAccessor(), () ->
+                    new CommandScope(UpdateCommandStep.COMMAND_NAME)
+                            .addArgumentValue(DbUrlConnectionCommandStep.DATABASE_ARG, database)
+                            .addArgumentValue(UpdateCommandStep.CHANGELOG_FILE_ARG, "db/changelog/db.changelog-master.xml")
+                            .execute());
+        }
+    }
+
+    private HttpResponse<String> login(String baseUrl) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"login\":\"alice.johnson@example.com\",\"password\":\"password1\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> get(String url, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url)).GET();
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static <T> Timed<T> timed(Call<T> call) throws Exception {
+        long start = System.nanoTime();
+        T result = call.run();
+        return new Timed<>(result, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private interface Call<T> {
+        T run() throws Exception;
+    }
+
+    private record Timed<T>(T result, long millis) {
+    }
+}